@@ -0,0 +1,54 @@
+package com.myproject.todo_management.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+@Configuration
+@EnableScheduling
+public class AsyncConfig {
+
+    // Pool kecil untuk pekerjaan file foto (hapus foto lama / file sisa rollback) di luar request thread
+    @Bean
+    public ThreadPoolTaskExecutor photoStorageExecutor(
+            @Value("${app.photo.storage-threads:2}") int threads,
+            @Value("${app.photo.storage-queue-capacity:500}") int queueCapacity) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(threads);
+        executor.setMaxPoolSize(threads);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("photo-storage-");
+        executor.initialize();
+        return executor;
+    }
+
+    // Worker pool untuk membuat thumbnail foto profil (CPU bound, jadi dibatasi)
+    @Bean
+    public ThreadPoolTaskExecutor photoThumbnailExecutor(
+            @Value("${app.photo.thumbnail-threads:2}") int threads,
+            @Value("${app.photo.thumbnail-queue-capacity:500}") int queueCapacity) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(threads);
+        executor.setMaxPoolSize(threads);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("photo-thumbnail-");
+        executor.initialize();
+        return executor;
+    }
+
+    // Worker pool untuk kirim event SSE ke client (satu task per koneksi yang punya event tertunda)
+    @Bean
+    public ThreadPoolTaskExecutor todoEventExecutor(
+            @Value("${app.todo-events.threads:4}") int threads,
+            @Value("${app.todo-events.queue-capacity:10000}") int queueCapacity) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(threads);
+        executor.setMaxPoolSize(threads);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("todo-event-");
+        executor.initialize();
+        return executor;
+    }
+}
@@ -1,8 +1,13 @@
 package com.myproject.todo_management.config;
 
+import com.myproject.todo_management.security.AdaptiveBCryptPasswordEncoder;
+import com.myproject.todo_management.security.ApiRateLimitFilter;
+import com.myproject.todo_management.security.BoundedPasswordEncoder;
 import com.myproject.todo_management.security.JwtAuthenticationEntryPoint;
 import com.myproject.todo_management.security.JwtAuthenticationFilter;
+import jakarta.servlet.DispatcherType;
 import lombok.AllArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.http.HttpMethod;
@@ -12,11 +17,13 @@ import org.springframework.security.config.annotation.method.configuration.Enabl
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.http.SessionCreationPolicy;
 import org.springframework.security.core.userdetails.UserDetailsService;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.DelegatingPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
 
+import java.util.Map;
+
 @Configuration
 @EnableMethodSecurity // Aktifkan @PreAuthorize dan @PostAuthorize
 @AllArgsConstructor
@@ -28,11 +35,25 @@ public class SpringSecurityConfig {
 
     private JwtAuthenticationFilter authenticationFilter;
 
+    private ApiRateLimitFilter apiRateLimitFilter;
+
 //    private CustomAuthenticationFailureHandler authenticationFailureHandler;
 
     @Bean
-    public static PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public static PasswordEncoder passwordEncoder(
+            @Value("${app.password-hash.threads:0}") int threads,
+            @Value("${app.password-hash.queue-capacity:64}") int queueCapacity,
+            @Value("${app.password-hash.target-millis:250}") long targetMillis,
+            @Value("${app.password-hash.min-strength:10}") int minStrength,
+            @Value("${app.password-hash.max-strength:14}") int maxStrength) {
+        // cost BCrypt dikalibrasi sesuai hardware, hash lama (tanpa prefix {bcrypt}) tetap bisa diverifikasi
+        AdaptiveBCryptPasswordEncoder bcrypt = AdaptiveBCryptPasswordEncoder.calibrate(targetMillis, minStrength, maxStrength);
+        DelegatingPasswordEncoder delegating = new DelegatingPasswordEncoder("bcrypt", Map.of("bcrypt", bcrypt));
+        delegating.setDefaultPasswordEncoderForMatches(bcrypt);
+
+        // 0 = jumlah core CPU
+        int poolSize = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        return new BoundedPasswordEncoder(delegating, poolSize, queueCapacity);
     }
 
     @Bean
@@ -54,6 +75,13 @@ public class SpringSecurityConfig {
 
                     // Endpoint get all user hanya untuk ADMIN
                     authorize.requestMatchers(HttpMethod.GET, "/api/auth/users").hasRole("ADMIN");
+                    authorize.requestMatchers(HttpMethod.GET, "/api/auth/users/cursor").hasRole("ADMIN");
+
+                    // Metrics (cache hit/miss dll) hanya untuk ADMIN
+                    authorize.requestMatchers("/actuator/**").hasRole("ADMIN");
+
+                    // Dispatch ASYNC saat stream SSE selesai / timeout (request awal sudah diautentikasi)
+                    authorize.dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll();
 
                     // Preflight request (CORS)
                     authorize.requestMatchers(HttpMethod.OPTIONS, "/**").permitAll();
@@ -67,6 +95,9 @@ public class SpringSecurityConfig {
         // Filter JWT sebelum UsernamePasswordAuthenticationFilter
         http.addFilterBefore(authenticationFilter, UsernamePasswordAuthenticationFilter.class);
 
+        // Rate limit per user setelah JWT, principal sudah ada di SecurityContext
+        http.addFilterAfter(apiRateLimitFilter, JwtAuthenticationFilter.class);
+
         return http.build();
     }
 
@@ -1,16 +1,23 @@
 package com.myproject.todo_management.config;
 
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.CacheControl;
 import org.springframework.web.servlet.config.annotation.ResourceHandlerRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
 
+import java.util.concurrent.TimeUnit;
+
 @Configuration
 public class WebConfig implements WebMvcConfigurer {
 
     @Override
     public void addResourceHandlers(ResourceHandlerRegistry registry) {
         // Mapping URL /uploads/** ke folder fisik uploads/
+        // (foto profil /uploads/photos/<uuid>.* dilayani PhotoController, ini fallback untuk file lain)
+        // Nama file UUID tidak pernah berubah isinya, jadi aman di-cache lama oleh browser
         registry.addResourceHandler("/uploads/**")
-                .addResourceLocations("file:uploads/");
+                .addResourceLocations("file:uploads/")
+                .setCacheControl(CacheControl.maxAge(365, TimeUnit.DAYS).cachePublic().immutable())
+                .resourceChain(true);
     }
 }
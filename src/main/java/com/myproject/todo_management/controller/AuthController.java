@@ -2,17 +2,22 @@ package com.myproject.todo_management.controller;
 
 import com.myproject.todo_management.dto.*;
 import com.myproject.todo_management.exception.ErrorDetails;
+import com.myproject.todo_management.exception.RateLimitExceededException;
 import com.myproject.todo_management.exception.TodoAPIException;
 import com.myproject.todo_management.service.AuthService;
+import com.myproject.todo_management.utils.VersionETag;
 import jakarta.validation.Valid;
 import lombok.AllArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
@@ -56,12 +61,52 @@ public class AuthController {
        }
     }
 
+    @PreAuthorize("hasRole('ADMIN')")
+    @GetMapping("/users/cursor")
+    public ResponseEntity<?> getAllUsersByCursor(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(name = "include_total", defaultValue = "false") boolean includeTotal
+    ) {
+        try {
+            CursorPagedResponse<RegisterDto> users = authService.getAllRegisterByCursor(cursor, size, includeTotal);
+
+            return ResponseEntity.ok(users);
+        } catch (TodoAPIException apiEx) {
+            log.error("There is an error", apiEx);
+            ErrorDetails errorDetails = new ErrorDetails(
+                    LocalDateTime.now(),
+                    apiEx.getMessage(),
+                    "Failed to fetch users"
+            );
+            return ResponseEntity.status(apiEx.getStatus()).body(errorDetails);
+        } catch (Exception e) {
+            log.error("There is an error", e); // log error + stack trace
+
+            ErrorDetails errorDetails = new ErrorDetails(
+                    LocalDateTime.now(),
+                    "Failed to fetch users",
+                    e.getMessage()
+            );
+
+            return ResponseEntity
+                    .status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(errorDetails);
+        }
+    }
+
     @PreAuthorize("hasAnyRole('ADMIN', 'USER')")
     @GetMapping("/users/{id}")
-    public ResponseEntity<?> getUserById(@PathVariable Long id) {
+    public ResponseEntity<?> getUserById(@PathVariable Long id, WebRequest webRequest) {
         try {
             RegisterDto registerDto = authService.getUserById(id);
-            return new ResponseEntity<>(registerDto, HttpStatus.OK);
+            String eTag = VersionETag.of(registerDto.getVersion());
+
+            // If-None-Match sama dengan versi sekarang -> 304 tanpa body
+            if (webRequest.checkNotModified(eTag)) {
+                return null;
+            }
+            return ResponseEntity.ok().eTag(eTag).body(registerDto);
         } catch (TodoAPIException apiEx) {
             log.error("There is an error", apiEx);
             ErrorDetails errorDetails = new ErrorDetails(
@@ -85,10 +130,15 @@ public class AuthController {
 
     @PreAuthorize("hasAnyRole('ADMIN', 'USER')")
     @GetMapping("/users/username/{usernameOrEmail}")
-    public ResponseEntity<?> getUserByUsernameOrEmail(@PathVariable String usernameOrEmail) {
+    public ResponseEntity<?> getUserByUsernameOrEmail(@PathVariable String usernameOrEmail, WebRequest webRequest) {
         try {
             RegisterDto registerDto =  authService.getUserByUsernameOrEmail(usernameOrEmail);
-            return new ResponseEntity<>(registerDto, HttpStatus.OK);
+            String eTag = VersionETag.of(registerDto.getVersion());
+
+            if (webRequest.checkNotModified(eTag)) {
+                return null;
+            }
+            return ResponseEntity.ok().eTag(eTag).body(registerDto);
         } catch (TodoAPIException apiEx) {
             log.error("There is an error", apiEx);
             ErrorDetails errorDetails = new ErrorDetails(
@@ -155,9 +205,10 @@ public class AuthController {
     public ResponseEntity<?> updateRegister(
             @PathVariable Long id,
             @RequestPart("data") @Valid UpdateRegisterDto updateRegisterDto,
-            @RequestPart(value = "photo", required = false) MultipartFile photo) {
+            @RequestPart(value = "photo", required = false) MultipartFile photo,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
         try {
-            String response = authService.updateRegister(id, updateRegisterDto, photo);
+            String response = authService.updateRegister(id, updateRegisterDto, photo, VersionETag.parseIfMatch(ifMatch));
             return new ResponseEntity<>(response, HttpStatus.OK);
         } catch (TodoAPIException apiEx) {
             log.error("There is an error", apiEx);
@@ -167,6 +218,15 @@ public class AuthController {
                     "Custom business error"
             );
             return ResponseEntity.status(apiEx.getStatus()).body(errorDetails);
+        } catch (OptimisticLockingFailureException lockEx) {
+            // diubah request lain di antara baca dan tulis (kolom version sudah berubah)
+            log.error("There is an error", lockEx);
+            ErrorDetails errorDetails = new ErrorDetails(
+                    LocalDateTime.now(),
+                    "User has been modified by another request, please reload it",
+                    lockEx.getMessage()
+            );
+            return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED).body(errorDetails);
         } catch (IOException ioEx) {
             log.error("Error while processing photo upload", ioEx);
             ErrorDetails errorDetails = new ErrorDetails(
@@ -224,6 +284,16 @@ public class AuthController {
         try {
             JwtAuthResponse jwtAuthResponse = authService.login(loginDto);
             return new ResponseEntity<>(jwtAuthResponse, HttpStatus.OK);
+        } catch (RateLimitExceededException rateEx) {
+            log.error("Login failed : ", rateEx);
+            ErrorDetails errorDetails = new ErrorDetails(
+                    LocalDateTime.now(),
+                    rateEx.getMessage(),
+                    "Login failed"
+            );
+            return ResponseEntity.status(rateEx.getStatus())
+                    .header(HttpHeaders.RETRY_AFTER, String.valueOf(rateEx.getRetryAfterSeconds()))
+                    .body(errorDetails);
         } catch(TodoAPIException apiEx) {
             log.error("Login failed : ", apiEx);
             ErrorDetails errorDetails = new ErrorDetails(
@@ -260,6 +330,15 @@ public class AuthController {
                     "Password update failed"
             );
             return ResponseEntity.status(apiEx.getStatus()).body(errorDetails);
+        } catch (OptimisticLockingFailureException lockEx) {
+            // user diubah request lain di antara baca dan tulis (kolom version sudah berubah)
+            log.error("There is an error", lockEx);
+            ErrorDetails errorDetails = new ErrorDetails(
+                    LocalDateTime.now(),
+                    "User has been modified by another request, please reload it",
+                    lockEx.getMessage()
+            );
+            return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED).body(errorDetails);
         } catch (Exception e) {
             log.error("Unexpected error during password update", e);
             ErrorDetails errorDetails = new ErrorDetails(
@@ -0,0 +1,174 @@
+package com.myproject.todo_management.controller;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import com.myproject.todo_management.event.PhotoDeletedEvent;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRange;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+// Serve foto profil (nama file UUID, isi tidak pernah berubah) dengan cache header immutable,
+// ETag kuat, 304, single range dan transfer zero-copy
+@RestController
+@Slf4j
+public class PhotoController {
+
+    private static final String UPLOAD_DIR = "uploads/photos/";
+
+    private static final String CACHE_CONTROL = CacheControl.maxAge(365, TimeUnit.DAYS)
+            .cachePublic()
+            .immutable()
+            .getHeaderValue();
+
+    // atribut Tomcat untuk sendfile (NIO connector)
+    private static final String SENDFILE_SUPPORT = "org.apache.tomcat.sendfile.support";
+    private static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+    private static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+    private static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+
+    // metadata foto yang sering diakses, supaya tidak stat file di setiap request
+    private final Map<String, PhotoMetadata> metadataCache = new ConcurrentHashMap<>();
+
+    private final int metadataCacheSize;
+
+    // di bawah ukuran ini lebih murah copy biasa daripada sendfile
+    private final long sendfileThreshold;
+
+    public PhotoController(@Value("${app.photo.metadata-cache-size:10000}") int metadataCacheSize,
+                           @Value("${app.photo.sendfile-threshold-bytes:49152}") long sendfileThreshold) {
+        this.metadataCacheSize = metadataCacheSize;
+        this.sendfileThreshold = sendfileThreshold;
+    }
+
+    @GetMapping("/uploads/photos/{fileName:[0-9a-fA-F\\-]{36}(?:_\\d+)?\\.(?:png|jpg)}")
+    public void getPhoto(@PathVariable String fileName,
+                         HttpServletRequest request,
+                         HttpServletResponse response) throws IOException {
+        PhotoMetadata metadata = getMetadata(fileName);
+        if (metadata == null) {
+            response.sendError(HttpServletResponse.SC_NOT_FOUND);
+            return;
+        }
+
+        response.setHeader(HttpHeaders.CACHE_CONTROL, CACHE_CONTROL);
+
+        // If-None-Match / If-Modified-Since -> 304 tanpa body
+        if (new ServletWebRequest(request, response).checkNotModified(metadata.etag(), metadata.lastModified())) {
+            return;
+        }
+
+        long start = 0;
+        long end = metadata.length() - 1;
+
+        // hanya single range yang didukung, multi range dikirim full (diperbolehkan RFC 9110)
+        String rangeHeader = request.getHeader(HttpHeaders.RANGE);
+        if (rangeHeader != null) {
+            try {
+                List<HttpRange> ranges = HttpRange.parseRanges(rangeHeader);
+                if (ranges.size() == 1) {
+                    start = ranges.get(0).getRangeStart(metadata.length());
+                    end = ranges.get(0).getRangeEnd(metadata.length());
+                    response.setStatus(HttpServletResponse.SC_PARTIAL_CONTENT);
+                    response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes " + start + "-" + end + "/" + metadata.length());
+                }
+            } catch (IllegalArgumentException ex) {
+                response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes */" + metadata.length());
+                response.sendError(HttpServletResponse.SC_REQUESTED_RANGE_NOT_SATISFIABLE);
+                return;
+            }
+        }
+
+        long count = end - start + 1;
+        response.setContentType(metadata.contentType());
+        response.setContentLengthLong(count);
+        response.setHeader(HttpHeaders.ACCEPT_RANGES, "bytes");
+
+        if ("HEAD".equalsIgnoreCase(request.getMethod())) return;
+
+        // Tomcat sendfile: body dikirim langsung oleh kernel dari file ke socket
+        if (count >= sendfileThreshold && Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORT))) {
+            request.setAttribute(SENDFILE_FILENAME, metadata.path().toAbsolutePath().toString());
+            request.setAttribute(SENDFILE_START, start);
+            request.setAttribute(SENDFILE_END, end + 1);
+            return;
+        }
+
+        try (FileChannel file = FileChannel.open(metadata.path(), StandardOpenOption.READ)) {
+            WritableByteChannel out = Channels.newChannel(response.getOutputStream());
+            long position = start;
+            while (position <= end) {
+                position += file.transferTo(position, end + 1 - position, out);
+            }
+        } catch (NoSuchFileException ex) {
+            // foto sudah dihapus setelah metadata di-cache
+            metadataCache.remove(fileName);
+            if (!response.isCommitted()) {
+                response.reset();
+                response.sendError(HttpServletResponse.SC_NOT_FOUND);
+            }
+        }
+    }
+
+    // foto (dan thumbnail-nya) dihapus PhotoStorageServiceImpl: request berikutnya harus 404, bukan 304 / 200
+    @EventListener
+    public void onPhotoDeleted(PhotoDeletedEvent event) {
+        event.fileNames().forEach(metadataCache::remove);
+    }
+
+    private PhotoMetadata getMetadata(String fileName) throws IOException {
+        PhotoMetadata metadata = metadataCache.get(fileName);
+        if (metadata != null) return metadata;
+
+        Path path = Paths.get(UPLOAD_DIR, fileName);
+        if (!Files.isRegularFile(path)) return null;
+
+        long length = Files.size(path);
+        String contentType = fileName.endsWith(".png") ? MediaType.IMAGE_PNG_VALUE : MediaType.IMAGE_JPEG_VALUE;
+
+        // nama file UUID tidak pernah dipakai ulang untuk isi lain, jadi nama + ukuran sudah cukup jadi ETag kuat
+        metadata = new PhotoMetadata(
+                path,
+                length,
+                Files.getLastModifiedTime(path).toMillis(),
+                "\"" + fileName + "-" + length + "\"",
+                contentType
+        );
+
+        if (metadataCache.size() >= metadataCacheSize) {
+            Iterator<String> iterator = metadataCache.keySet().iterator();
+            while (metadataCache.size() >= metadataCacheSize && iterator.hasNext()) {
+                iterator.next();
+                iterator.remove();
+            }
+        }
+        metadataCache.put(fileName, metadata);
+
+        return metadata;
+    }
+
+    private record PhotoMetadata(Path path, long length, long lastModified, String etag, String contentType) {
+    }
+}
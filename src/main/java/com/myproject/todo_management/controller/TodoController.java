@@ -1,19 +1,40 @@
 package com.myproject.todo_management.controller;
 
+import com.myproject.todo_management.dto.CursorPagedResponse;
 import com.myproject.todo_management.dto.PagedResponse;
+import com.myproject.todo_management.dto.TodoBulkOperationDto;
+import com.myproject.todo_management.dto.TodoBulkResultDto;
+import com.myproject.todo_management.dto.TodoBulkUpdateResponse;
 import com.myproject.todo_management.dto.TodoDto;
+import com.myproject.todo_management.dto.TodoFilter;
+import com.myproject.todo_management.dto.TodoIdsDto;
+import com.myproject.todo_management.dto.TodoStatsDto;
+import com.myproject.todo_management.dto.TodoSyncResponse;
+import com.myproject.todo_management.event.TodoEventBus;
 import com.myproject.todo_management.exception.ErrorDetails;
 import com.myproject.todo_management.exception.TodoAPIException;
+import com.myproject.todo_management.security.CustomUserDetailService;
+import com.myproject.todo_management.security.JwtAuthenticationFilter;
+import com.myproject.todo_management.security.JwtTokenProvider;
+import com.myproject.todo_management.security.UserDetailsCache;
 import com.myproject.todo_management.service.TodoService;
+import com.myproject.todo_management.utils.VersionETag;
+import io.jsonwebtoken.Claims;
 import jakarta.validation.Valid;
 import lombok.AllArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.time.LocalDateTime;
 import java.util.List;
@@ -27,6 +48,12 @@ public class TodoController {
 
     private TodoService todoService;
 
+    private TodoEventBus todoEventBus;
+
+    private CustomUserDetailService userDetailService;
+
+    private JwtTokenProvider jwtTokenProvider;
+
     // Build Add Todo REST API
     @PreAuthorize("hasAnyRole('ADMIN', 'USER')")
     @PostMapping
@@ -56,10 +83,16 @@ public class TodoController {
     // Build Get TODO REST API
     @PreAuthorize("hasAnyRole('ADMIN', 'USER')")
     @GetMapping("{id}")
-    public ResponseEntity<?> getTodo(@PathVariable("id") Long todoId) {
+    public ResponseEntity<?> getTodo(@PathVariable("id") Long todoId, WebRequest webRequest) {
         try {
             TodoDto todoDto = todoService.getTodo(todoId);
-            return new ResponseEntity<>(todoDto, HttpStatus.OK);
+            String eTag = VersionETag.of(todoDto.getVersion());
+
+            // If-None-Match sama dengan versi sekarang -> 304 tanpa body
+            if (webRequest.checkNotModified(eTag)) {
+                return null;
+            }
+            return ResponseEntity.ok().eTag(eTag).body(todoDto);
         } catch (TodoAPIException apiEx) {
             log.error("There is an error", apiEx);
             ErrorDetails errorDetails = new ErrorDetails(
@@ -84,11 +117,19 @@ public class TodoController {
     @GetMapping
     public ResponseEntity<?> getAllTodos(
             @RequestParam(defaultValue = "0") int page,
-            @RequestParam(defaultValue = "10") int size
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(required = false) Boolean completed,
+            @RequestParam(name = "created_from", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime createdFrom,
+            @RequestParam(name = "created_to", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime createdTo,
+            @RequestParam(name = "updated_from", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime updatedFrom,
+            @RequestParam(name = "updated_to", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime updatedTo,
+            @RequestParam(required = false) String sort,
+            @RequestParam(defaultValue = "asc") String direction
     ) {
         try {
             Pageable pageable = PageRequest.of(page, size);
-            PagedResponse<TodoDto> todos = todoService.getAllTodos(pageable);
+            TodoFilter filter = new TodoFilter(completed, createdFrom, createdTo, updatedFrom, updatedTo);
+            PagedResponse<TodoDto> todos = todoService.getAllTodos(filter, sort, direction, pageable);
 
             return ResponseEntity.ok(todos);
         }  catch (TodoAPIException apiEx) {
@@ -111,13 +152,170 @@ public class TodoController {
 
     }
 
+    // Build Get All Todos (cursor / keyset pagination) REST API
+    @PreAuthorize("hasAnyRole('ADMIN', 'USER')")
+    @GetMapping("cursor")
+    public ResponseEntity<?> getAllTodosByCursor(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(name = "include_total", defaultValue = "false") boolean includeTotal
+    ) {
+        try {
+            CursorPagedResponse<TodoDto> todos = todoService.getAllTodosByCursor(cursor, size, includeTotal);
+
+            return ResponseEntity.ok(todos);
+        } catch (TodoAPIException apiEx) {
+            log.error("There is an error", apiEx);
+            ErrorDetails errorDetails = new ErrorDetails(
+                    LocalDateTime.now(),
+                    apiEx.getMessage(),
+                    "Custom business error"
+            );
+            return ResponseEntity.status(apiEx.getStatus()).body(errorDetails);
+        } catch (Exception e) {
+            log.error("There is an error", e);
+            ErrorDetails errorDetails = new ErrorDetails(
+                    LocalDateTime.now(),
+                    "Unexpected error occurred",
+                    e.getMessage()
+            );
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(errorDetails);
+        }
+    }
+
+    // Build Sync Todos REST API: hanya todo yang berubah / dihapus sejak watermark
+    @PreAuthorize("hasAnyRole('ADMIN', 'USER')")
+    @GetMapping("sync")
+    public ResponseEntity<?> syncTodos(
+            @RequestParam(required = false) String since,
+            @RequestParam(defaultValue = "100") int size,
+            WebRequest webRequest
+    ) {
+        try {
+            TodoSyncResponse response = todoService.syncTodos(since, size);
+            String eTag = "\"" + response.getWatermark() + "\"";
+
+            // watermark tidak bergeser = tidak ada perubahan -> 304 tanpa body
+            if (webRequest.checkNotModified(eTag)) {
+                return null;
+            }
+            return ResponseEntity.ok().eTag(eTag).body(response);
+        } catch (TodoAPIException apiEx) {
+            log.error("There is an error", apiEx);
+            ErrorDetails errorDetails = new ErrorDetails(
+                    LocalDateTime.now(),
+                    apiEx.getMessage(),
+                    "Custom business error"
+            );
+            return ResponseEntity.status(apiEx.getStatus()).body(errorDetails);
+        } catch (Exception e) {
+            log.error("There is an error", e);
+            ErrorDetails errorDetails = new ErrorDetails(
+                    LocalDateTime.now(),
+                    "Unexpected error occurred",
+                    e.getMessage()
+            );
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(errorDetails);
+        }
+    }
+
+    // Build Search Todos REST API (title & description, dari inverted index in-memory)
+    @PreAuthorize("hasAnyRole('ADMIN', 'USER')")
+    @GetMapping("search")
+    public ResponseEntity<?> searchTodos(
+            @RequestParam("q") String query,
+            @RequestParam(defaultValue = "20") int size
+    ) {
+        try {
+            List<TodoDto> todos = todoService.searchTodos(query, size);
+            return ResponseEntity.ok(todos);
+        } catch (TodoAPIException apiEx) {
+            log.error("There is an error", apiEx);
+            ErrorDetails errorDetails = new ErrorDetails(
+                    LocalDateTime.now(),
+                    apiEx.getMessage(),
+                    "Custom business error"
+            );
+            return ResponseEntity.status(apiEx.getStatus()).body(errorDetails);
+        } catch (Exception e) {
+            log.error("There is an error", e);
+            ErrorDetails errorDetails = new ErrorDetails(
+                    LocalDateTime.now(),
+                    "Unexpected error occurred",
+                    e.getMessage()
+            );
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(errorDetails);
+        }
+    }
+
+    // Build Todo Stats REST API (total / completed / pending milik user yang login)
+    @PreAuthorize("hasAnyRole('ADMIN', 'USER')")
+    @GetMapping("stats")
+    public ResponseEntity<?> getTodoStats() {
+        try {
+            TodoStatsDto stats = todoService.getTodoStats();
+            return ResponseEntity.ok(stats);
+        } catch (Exception e) {
+            log.error("There is an error", e);
+            ErrorDetails errorDetails = new ErrorDetails(
+                    LocalDateTime.now(),
+                    "Unexpected error occurred",
+                    e.getMessage()
+            );
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(errorDetails);
+        }
+    }
+
+    // Build Global Todo Stats REST API (semua user, hanya ADMIN)
+    @PreAuthorize("hasRole('ADMIN')")
+    @GetMapping("stats/global")
+    public ResponseEntity<?> getGlobalTodoStats() {
+        try {
+            TodoStatsDto stats = todoService.getGlobalTodoStats();
+            return ResponseEntity.ok(stats);
+        } catch (Exception e) {
+            log.error("There is an error", e);
+            ErrorDetails errorDetails = new ErrorDetails(
+                    LocalDateTime.now(),
+                    "Unexpected error occurred",
+                    e.getMessage()
+            );
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(errorDetails);
+        }
+    }
+
+    // Build Todo Events REST API (SSE): push create / update / complete / delete ke owner dan admin.
+    // Return SseEmitter langsung (bukan ResponseEntity<?>) supaya di-handle sebagai stream,
+    // TodoAPIException (limit koneksi) ditangani GlobalExceptionHandler.
+    @PreAuthorize("hasAnyRole('ADMIN', 'USER')")
+    @GetMapping("events")
+    public SseEmitter todoEvents(Authentication authentication,
+                                 @RequestAttribute(JwtAuthenticationFilter.CLAIMS_ATTRIBUTE) Claims claims) {
+        boolean admin = authentication.getAuthorities().stream()
+                .anyMatch(role -> role.getAuthority().equals("ROLE_ADMIN"));
+
+        // id user dibutuhkan supaya stream bisa ditutup saat token user di-revoke.
+        // Diambil dari claim uid, bukan query ke database: dengan open-in-view koneksi yang dipakai query
+        // ikut tertahan selama stream terbuka. Token lama tanpa claim uid tetap lewat cache / database.
+        Long userId = jwtTokenProvider.getUserId(claims);
+        if (userId == null) {
+            userId = userDetailService.findUser(authentication.getName())
+                    .map(UserDetailsCache.CachedUser::id)
+                    .orElseThrow(() -> new TodoAPIException(HttpStatus.NOT_FOUND, "User not found"));
+        }
+
+        return todoEventBus.subscribe(authentication.getName(), userId, admin);
+    }
+
     // Build Update TODO REST API
     @PreAuthorize("hasAnyRole('ADMIN', 'USER')")
     @PutMapping("{id}")
-    public ResponseEntity<?> updateTodo(@Valid @RequestBody TodoDto todoDto, @PathVariable("id") Long todoId) {
+    public ResponseEntity<?> updateTodo(@Valid @RequestBody TodoDto todoDto,
+                                        @PathVariable("id") Long todoId,
+                                        @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
         try {
-            TodoDto updateTodo =  todoService.updateTodo(todoDto, todoId);
-            return ResponseEntity.ok(updateTodo);
+            TodoDto updateTodo =  todoService.updateTodo(todoDto, todoId, VersionETag.parseIfMatch(ifMatch));
+            return ResponseEntity.ok().eTag(VersionETag.of(updateTodo.getVersion())).body(updateTodo);
         } catch (TodoAPIException apiEx) {
             log.error("There is an error", apiEx);
             ErrorDetails errorDetails = new ErrorDetails(
@@ -126,6 +324,15 @@ public class TodoController {
                     "Custom business error"
             );
             return ResponseEntity.status(apiEx.getStatus()).body(errorDetails);
+        } catch (OptimisticLockingFailureException lockEx) {
+            // diubah request lain di antara baca dan tulis (kolom version sudah berubah)
+            log.error("There is an error", lockEx);
+            ErrorDetails errorDetails = new ErrorDetails(
+                    LocalDateTime.now(),
+                    "Todo has been modified by another request, please reload it",
+                    lockEx.getMessage()
+            );
+            return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED).body(errorDetails);
         } catch (Exception e) {
             log.error("There is an error", e);
             ErrorDetails errorDetails = new ErrorDetails(
@@ -165,10 +372,11 @@ public class TodoController {
 
     @PreAuthorize("hasAnyRole('ADMIN', 'USER')")
      @PatchMapping("{id}/complete")
-     public ResponseEntity<?> completedTodo(@PathVariable("id") Long todoId) {
+     public ResponseEntity<?> completedTodo(@PathVariable("id") Long todoId,
+                                            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
         try {
-            TodoDto updatedTodo = todoService.completedTodo(todoId);
-            return ResponseEntity.ok(updatedTodo);
+            TodoDto updatedTodo = todoService.completedTodo(todoId, VersionETag.parseIfMatch(ifMatch));
+            return ResponseEntity.ok().eTag(VersionETag.of(updatedTodo.getVersion())).body(updatedTodo);
         } catch (TodoAPIException apiEx) {
             log.error("There is an error", apiEx);
             ErrorDetails errorDetails = new ErrorDetails(
@@ -177,6 +385,15 @@ public class TodoController {
                     "Custom business error"
             );
             return ResponseEntity.status(apiEx.getStatus()).body(errorDetails);
+        } catch (OptimisticLockingFailureException lockEx) {
+            // diubah request lain di antara baca dan tulis (kolom version sudah berubah)
+            log.error("There is an error", lockEx);
+            ErrorDetails errorDetails = new ErrorDetails(
+                    LocalDateTime.now(),
+                    "Todo has been modified by another request, please reload it",
+                    lockEx.getMessage()
+            );
+            return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED).body(errorDetails);
         } catch (Exception e) {
             log.error("There is an error", e);
             ErrorDetails errorDetails = new ErrorDetails(
@@ -190,10 +407,107 @@ public class TodoController {
 
     @PreAuthorize("hasAnyRole('ADMIN', 'USER')")
     @PatchMapping("{id}/in-complete")
-    public ResponseEntity<?> InCompletedTodo(@PathVariable("id") Long todoId) {
+    public ResponseEntity<?> InCompletedTodo(@PathVariable("id") Long todoId,
+                                             @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        try {
+            TodoDto updatedTodo = todoService.inCompleteTodo(todoId, VersionETag.parseIfMatch(ifMatch));
+            return ResponseEntity.ok().eTag(VersionETag.of(updatedTodo.getVersion())).body(updatedTodo);
+        } catch (TodoAPIException apiEx) {
+            log.error("There is an error", apiEx);
+            ErrorDetails errorDetails = new ErrorDetails(
+                    LocalDateTime.now(),
+                    apiEx.getMessage(),
+                    "Custom business error"
+            );
+            return ResponseEntity.status(apiEx.getStatus()).body(errorDetails);
+        } catch (OptimisticLockingFailureException lockEx) {
+            // diubah request lain di antara baca dan tulis (kolom version sudah berubah)
+            log.error("There is an error", lockEx);
+            ErrorDetails errorDetails = new ErrorDetails(
+                    LocalDateTime.now(),
+                    "Todo has been modified by another request, please reload it",
+                    lockEx.getMessage()
+            );
+            return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED).body(errorDetails);
+        } catch (Exception e) {
+            log.error("There is an error", e);
+            ErrorDetails errorDetails = new ErrorDetails(
+                    LocalDateTime.now(),
+                    "Unexpected error occurred",
+                    e.getMessage()
+            );
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(errorDetails);
+        }
+    }
+
+    // Build Bulk Todo REST API (create / update / complete / in-complete / delete sekaligus)
+    @PreAuthorize("hasAnyRole('ADMIN', 'USER')")
+    @PostMapping("bulk")
+    public ResponseEntity<?> bulkTodos(@RequestBody List<TodoBulkOperationDto> operations) {
+        try {
+            List<TodoBulkResultDto> results = todoService.bulkTodos(operations);
+            return ResponseEntity.ok(results);
+        } catch (TodoAPIException apiEx) {
+            log.error("There is an error", apiEx);
+            ErrorDetails errorDetails = new ErrorDetails(
+                    LocalDateTime.now(),
+                    apiEx.getMessage(),
+                    "Custom business error"
+            );
+            return ResponseEntity.status(apiEx.getStatus()).body(errorDetails);
+        } catch (OptimisticLockingFailureException lockEx) {
+            // diubah request lain di antara baca dan tulis (kolom version sudah berubah)
+            log.error("There is an error", lockEx);
+            ErrorDetails errorDetails = new ErrorDetails(
+                    LocalDateTime.now(),
+                    "Todo has been modified by another request, please reload it",
+                    lockEx.getMessage()
+            );
+            return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED).body(errorDetails);
+        } catch (Exception e) {
+            log.error("There is an error", e);
+            ErrorDetails errorDetails = new ErrorDetails(
+                    LocalDateTime.now(),
+                    "Unexpected error occurred",
+                    e.getMessage()
+            );
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(errorDetails);
+        }
+    }
+
+    // Build Bulk complete TODO REST API (satu UPDATE untuk banyak todo)
+    @PreAuthorize("hasAnyRole('ADMIN', 'USER')")
+    @PatchMapping("complete")
+    public ResponseEntity<?> completeTodos(@Valid @RequestBody TodoIdsDto todoIdsDto) {
+        try {
+            TodoBulkUpdateResponse response = todoService.markTodos(todoIdsDto.getIds(), true);
+            return ResponseEntity.ok(response);
+        } catch (TodoAPIException apiEx) {
+            log.error("There is an error", apiEx);
+            ErrorDetails errorDetails = new ErrorDetails(
+                    LocalDateTime.now(),
+                    apiEx.getMessage(),
+                    "Custom business error"
+            );
+            return ResponseEntity.status(apiEx.getStatus()).body(errorDetails);
+        } catch (Exception e) {
+            log.error("There is an error", e);
+            ErrorDetails errorDetails = new ErrorDetails(
+                    LocalDateTime.now(),
+                    "Unexpected error occurred",
+                    e.getMessage()
+            );
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(errorDetails);
+        }
+    }
+
+    // Build Bulk in-complete TODO REST API (satu UPDATE untuk banyak todo)
+    @PreAuthorize("hasAnyRole('ADMIN', 'USER')")
+    @PatchMapping("in-complete")
+    public ResponseEntity<?> inCompleteTodos(@Valid @RequestBody TodoIdsDto todoIdsDto) {
         try {
-            TodoDto updatedTodo = todoService.inCompleteTodo(todoId);
-            return ResponseEntity.ok(updatedTodo);
+            TodoBulkUpdateResponse response = todoService.markTodos(todoIdsDto.getIds(), false);
+            return ResponseEntity.ok(response);
         } catch (TodoAPIException apiEx) {
             log.error("There is an error", apiEx);
             ErrorDetails errorDetails = new ErrorDetails(
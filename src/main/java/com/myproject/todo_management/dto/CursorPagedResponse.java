@@ -0,0 +1,23 @@
+package com.myproject.todo_management.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+public class CursorPagedResponse<T> {
+    private List<T> data;
+    private int size;
+    @JsonProperty("next_cursor")
+    private String nextCursor;
+    @JsonProperty("has_next")
+    private boolean hasNext;
+    // hanya diisi kalau client minta (include_total=true), supaya tidak ada COUNT(*) di setiap halaman
+    @JsonProperty("total_elements")
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Long totalElements;
+}
@@ -11,6 +11,7 @@ import lombok.NoArgsConstructor;
 import lombok.Setter;
 
 import java.time.LocalDate;
+import java.util.Map;
 
 @Getter
 @Setter
@@ -51,4 +52,27 @@ public class RegisterDto {
     private String location;
 
     private String profilePhoto;
+
+    // ukuran (px) -> URL thumbnail profilePhoto, hanya untuk response. Thumbnail dibuat di background
+    // setelah upload, sesaat setelah upload URL-nya bisa belum tersedia (pakai profilePhoto)
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    private Map<Integer, String> profilePhotoThumbnails;
+
+    // versi entity (ETag), hanya untuk response
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    private Long version;
+
+    // dipakai oleh projection query UserRepository (password tidak pernah di-select)
+    public RegisterDto(Long id, String name, String username, String email, LocalDate birthDate,
+                       String jobTitle, String location, String profilePhoto, Long version) {
+        this.id = id;
+        this.name = name;
+        this.username = username;
+        this.email = email;
+        this.birthDate = birthDate;
+        this.jobTitle = jobTitle;
+        this.location = location;
+        this.profilePhoto = profilePhoto;
+        this.version = version;
+    }
 }
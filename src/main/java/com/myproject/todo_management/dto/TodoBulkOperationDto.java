@@ -0,0 +1,29 @@
+package com.myproject.todo_management.dto;
+
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class TodoBulkOperationDto {
+
+    public enum Operation {
+        CREATE, UPDATE, COMPLETE, INCOMPLETE, DELETE
+    }
+
+    @NotNull(message = "operation cannot be empty")
+    private Operation operation;
+
+    // wajib untuk UPDATE, COMPLETE, INCOMPLETE dan DELETE
+    private Long id;
+
+    // dipakai untuk CREATE dan UPDATE
+    private String title;
+    private String description;
+    private boolean completed;
+}
@@ -0,0 +1,21 @@
+package com.myproject.todo_management.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class TodoBulkResultDto {
+    // posisi operasi di request
+    private int index;
+    private TodoBulkOperationDto.Operation operation;
+    private int status;
+    private String message;
+    private TodoDto todo;
+}
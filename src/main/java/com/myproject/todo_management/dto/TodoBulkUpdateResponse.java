@@ -0,0 +1,21 @@
+package com.myproject.todo_management.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.List;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class TodoBulkUpdateResponse {
+    // jumlah id yang dikirim client
+    private int requested;
+    // jumlah todo yang benar-benar berubah (milik user & status sebelumnya berbeda)
+    private int affected;
+    // versi baru setiap todo yang berubah
+    private List<TodoVersionDto> todos;
+}
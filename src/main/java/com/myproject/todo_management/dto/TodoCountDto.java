@@ -0,0 +1,17 @@
+package com.myproject.todo_management.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+// hasil agregasi jumlah todo per owner (dipakai projection query TodoRepository)
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class TodoCountDto {
+    private String createdBy;
+    private Long total;
+    private Long completed;
+}
@@ -26,6 +26,10 @@ public class TodoDto {
     private String createdBy;
     private String updatedBy;
 
+    // versi entity (ETag), hanya untuk response
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    private Long version;
+
 //    @JsonFormat(shape = JsonFormat.Shape.STRING, pattern = "yyyy:MM:dd HH:mm:ss")
 //    private LocalDateTime timeCreated;
 //
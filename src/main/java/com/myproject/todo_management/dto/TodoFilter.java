@@ -0,0 +1,26 @@
+package com.myproject.todo_management.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+// Filter list todo, semua field opsional (null = tidak difilter)
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class TodoFilter {
+    private Boolean completed;
+    private LocalDateTime createdFrom;
+    private LocalDateTime createdTo;
+    private LocalDateTime updatedFrom;
+    private LocalDateTime updatedTo;
+
+    public boolean isEmpty() {
+        return completed == null && createdFrom == null && createdTo == null
+                && updatedFrom == null && updatedTo == null;
+    }
+}
@@ -0,0 +1,20 @@
+package com.myproject.todo_management.dto;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.List;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class TodoIdsDto {
+    @NotEmpty(message = "ids cannot be empty")
+    @Size(max = 1000, message = "maximum 1000 ids per request")
+    private List<Long> ids;
+}
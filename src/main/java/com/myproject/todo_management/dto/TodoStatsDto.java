@@ -0,0 +1,16 @@
+package com.myproject.todo_management.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class TodoStatsDto {
+    private long total;
+    private long completed;
+    private long pending;
+}
@@ -0,0 +1,20 @@
+package com.myproject.todo_management.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+public class TodoSyncResponse {
+    // todo yang dibuat / diubah sejak watermark
+    private List<TodoDto> changed;
+    // id todo yang dihapus sejak watermark
+    private List<Long> deleted;
+    // dikirim lagi sebagai "since" di sync berikutnya
+    private String watermark;
+    @JsonProperty("has_more")
+    private boolean hasMore;
+}
@@ -0,0 +1,20 @@
+package com.myproject.todo_management.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+// id + versi todo setelah bulk complete / in-complete, client pakai versi ini untuk If-Match berikutnya
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class TodoVersionDto {
+    private Long id;
+    private Long version;
+    // owner, hanya dipakai di server (counter statistik & event)
+    @JsonIgnore
+    private String createdBy;
+}
@@ -5,6 +5,8 @@ import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 @Getter
 @Setter
@@ -12,6 +14,8 @@ import lombok.Setter;
 @AllArgsConstructor
 @Entity
 @Table(name = "roles")
+// data role praktis statis (diisi lewat migration), aman di-cache read-only
+@Cache(usage = CacheConcurrencyStrategy.READ_ONLY)
 public class Role {
 
     @Id
@@ -15,11 +15,23 @@ import java.time.LocalDateTime;
 @NoArgsConstructor
 @AllArgsConstructor
 @Entity
-@Table(name = "todos")
+@Table(name = "todos", indexes = {
+        // dibuat lewat migration V2 (db/migration), didaftarkan juga di sini supaya mapping sesuai schema
+        @Index(name = "idx_todos_created_by_id", columnList = "created_by, id"),
+        @Index(name = "idx_todos_user_id_title", columnList = "user_id, title"),
+        @Index(name = "idx_todos_created_by_time_updated", columnList = "created_by, time_updated"),
+        @Index(name = "idx_todos_created_by_completed_id", columnList = "created_by, completed, id"),
+        @Index(name = "idx_todos_created_by_time_created", columnList = "created_by, time_created"),
+        @Index(name = "idx_todos_time_created_id", columnList = "time_created, id"),
+        @Index(name = "idx_todos_time_updated_id", columnList = "time_updated, id")
+})
 public class Todo {
 
+    // Sequence (di MySQL diemulasikan dengan tabel todos_seq) dengan pooled allocation,
+    // IDENTITY membuat Hibernate tidak bisa batch insert
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "todos_seq")
+    @SequenceGenerator(name = "todos_seq", sequenceName = "todos_seq", allocationSize = 50)
     private Long id;
 
     @Column(nullable = false)
@@ -47,4 +59,9 @@ public class Todo {
     @UpdateTimestamp
     @Column(name = "time_updated")
     private LocalDateTime timeUpdated;
+
+    // optimistic locking: UPDATE ... WHERE version = ?, juga dipakai sebagai ETag
+    @Version
+    @Column(nullable = false)
+    private Long version;
 }
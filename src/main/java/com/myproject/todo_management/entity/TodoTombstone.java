@@ -0,0 +1,45 @@
+package com.myproject.todo_management.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.springframework.data.domain.Persistable;
+
+import java.time.LocalDateTime;
+
+// Jejak todo yang sudah dihapus, dikirim ke client lewat delta sync lalu dibersihkan setelah masa retensi
+@Setter
+@Getter
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "todo_tombstones", indexes = {
+        @Index(name = "idx_todo_tombstones_created_by_deleted_at", columnList = "created_by, deleted_at"),
+        @Index(name = "idx_todo_tombstones_deleted_at", columnList = "deleted_at")
+})
+public class TodoTombstone implements Persistable<Long> {
+
+    // id todo yang dihapus (id dari sequence tidak pernah dipakai ulang)
+    @Id
+    @Column(name = "todo_id")
+    private Long todoId;
+
+    @Column(name = "created_by", nullable = false)
+    private String createdBy;
+
+    @Column(name = "deleted_at", nullable = false)
+    private LocalDateTime deletedAt;
+
+    @Override
+    public Long getId() {
+        return todoId;
+    }
+
+    // tombstone selalu baru, jadi save() langsung INSERT (bisa di-batch) tanpa SELECT dulu seperti merge
+    @Override
+    public boolean isNew() {
+        return true;
+    }
+}
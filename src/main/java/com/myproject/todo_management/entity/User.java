@@ -5,6 +5,9 @@ import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
+import org.hibernate.annotations.BatchSize;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.hibernate.annotations.CreationTimestamp;
 import org.hibernate.annotations.UpdateTimestamp;
 
@@ -17,16 +20,21 @@ import java.util.Set;
 @NoArgsConstructor
 @AllArgsConstructor
 @Entity
-@Table(name = "users")
+@Table(name = "users", uniqueConstraints = {
+        // findByUsernameOrEmail: MySQL pakai index merge (union) dari dua unique index ini
+        @UniqueConstraint(name = "uk_users_username", columnNames = "username"),
+        @UniqueConstraint(name = "uk_users_email", columnNames = "email")
+})
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
 public class User {
 
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
     private String name;
-    @Column(nullable = false, unique = true)
+    @Column(nullable = false)
     private String username;
-    @Column(nullable = false, unique = true)
+    @Column(nullable = false)
     private String email;
     @Column(nullable = false)
     private String password;
@@ -49,7 +57,15 @@ public class User {
     private String createdBy;
     @Column(name = "updated_by")
     private String updatedBy;
+    // optimistic locking: UPDATE ... WHERE version = ?, juga dipakai sebagai ETag
+    @Version
+    @Column(nullable = false)
+    private Long version;
 
+    // roles beberapa user di-load sekaligus dalam satu query IN (...), bukan satu query per user
+    @BatchSize(size = 50)
+    // isi roles (id role) ikut di second-level cache, role-nya sendiri diambil dari cache Role
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
     @ManyToMany(fetch = FetchType.EAGER, cascade = { CascadeType.PERSIST, CascadeType.MERGE })
     @JoinTable(
             name = "users_roles",
@@ -0,0 +1,7 @@
+package com.myproject.todo_management.event;
+
+import java.util.List;
+
+// Dipublish setelah file foto (beserta thumbnail) dihapus dari disk
+public record PhotoDeletedEvent(List<String> fileNames) {
+}
@@ -0,0 +1,12 @@
+package com.myproject.todo_management.event;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.myproject.todo_management.dto.TodoDto;
+
+// Perubahan todo yang di-push ke client lewat SSE. todo = null untuk DELETED.
+public record TodoEvent(Type type, Long id, @JsonIgnore String owner, TodoDto todo) {
+
+    public enum Type {
+        CREATED, UPDATED, COMPLETED, INCOMPLETED, DELETED
+    }
+}
@@ -0,0 +1,275 @@
+package com.myproject.todo_management.event;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.myproject.todo_management.dto.TodoDto;
+import com.myproject.todo_management.exception.TodoAPIException;
+import com.myproject.todo_management.security.TokenRevocationRegistry;
+import com.myproject.todo_management.utils.AfterCommit;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.Collection;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Event bus in-process: TodoServiceImpl publish setelah commit, event dikirim ke koneksi SSE milik owner dan admin.
+// Publish tidak pernah blocking: event masuk buffer per koneksi (terbatas), dikirim oleh worker pool.
+// Koneksi yang buffernya penuh (client lambat) langsung ditutup.
+@Component
+@Slf4j
+public class TodoEventBus {
+
+    private static final Message HEARTBEAT = new Message(null, null);
+
+    // username -> koneksi SSE user tersebut
+    private final ConcurrentHashMap<String, Set<Subscriber>> userSubscribers = new ConcurrentHashMap<>();
+
+    // admin menerima event semua user
+    private final Set<Subscriber> adminSubscribers = ConcurrentHashMap.newKeySet();
+
+    private final AtomicInteger connections = new AtomicInteger();
+
+    private final ThreadPoolTaskExecutor todoEventExecutor;
+
+    private final ObjectMapper objectMapper;
+
+    private final int bufferSize;
+
+    private final long timeoutMillis;
+
+    private final int maxConnectionsPerUser;
+
+    private final int maxConnections;
+
+    private final Counter slowConsumerEvictions;
+
+    public TodoEventBus(@Qualifier("todoEventExecutor") ThreadPoolTaskExecutor todoEventExecutor,
+                        ObjectMapper objectMapper,
+                        @Value("${app.todo-events.buffer-size:32}") int bufferSize,
+                        @Value("${app.todo-events.timeout-ms:1800000}") long timeoutMillis,
+                        @Value("${app.todo-events.max-connections-per-user:5}") int maxConnectionsPerUser,
+                        @Value("${app.todo-events.max-connections:10000}") int maxConnections,
+                        TokenRevocationRegistry tokenRevocationRegistry,
+                        MeterRegistry meterRegistry) {
+        this.todoEventExecutor = todoEventExecutor;
+        this.objectMapper = objectMapper;
+        this.bufferSize = bufferSize;
+        this.timeoutMillis = timeoutMillis;
+        this.maxConnectionsPerUser = maxConnectionsPerUser;
+        this.maxConnections = maxConnections;
+        this.slowConsumerEvictions = Counter.builder("todo.events.evicted")
+                .tag("reason", "slow_consumer")
+                .register(meterRegistry);
+        Gauge.builder("todo.events.connections", connections, AtomicInteger::get).register(meterRegistry);
+
+        // password / role berubah atau user dihapus: stream yang sudah terbuka ditutup,
+        // client harus connect ulang dengan token baru
+        tokenRevocationRegistry.addListener(this::closeUser);
+    }
+
+    public SseEmitter subscribe(String username, Long userId, boolean admin) {
+        if (connections.incrementAndGet() > maxConnections) {
+            connections.decrementAndGet();
+            throw new TodoAPIException(HttpStatus.SERVICE_UNAVAILABLE, "Too many event stream connections, please try again later");
+        }
+
+        SseEmitter emitter = new SseEmitter(timeoutMillis);
+        Subscriber subscriber = new Subscriber(username, userId, admin, emitter);
+
+        if (admin) {
+            adminSubscribers.add(subscriber);
+        } else {
+            // cek limit & tambah di dalam compute, supaya tidak balapan dengan remove() koneksi terakhir
+            AtomicBoolean accepted = new AtomicBoolean();
+            userSubscribers.compute(username, (key, subscribers) -> {
+                Set<Subscriber> current = subscribers == null ? ConcurrentHashMap.newKeySet() : subscribers;
+                if (current.size() < maxConnectionsPerUser) {
+                    current.add(subscriber);
+                    accepted.set(true);
+                }
+                return current.isEmpty() ? null : current;
+            });
+
+            if (!accepted.get()) {
+                connections.decrementAndGet();
+                throw new TodoAPIException(HttpStatus.TOO_MANY_REQUESTS, "Too many event stream connections for this user");
+            }
+        }
+
+        emitter.onCompletion(subscriber::remove);
+        emitter.onTimeout(subscriber::close);
+        emitter.onError(error -> subscriber.close());
+
+        return emitter;
+    }
+
+    public void publishAfterCommit(TodoEvent.Type type, Long id, String owner, TodoDto todo) {
+        TodoEvent event = new TodoEvent(type, id, owner, todo);
+
+        AfterCommit.run(() -> publish(event));
+    }
+
+    // event yang sama untuk banyak todo satu owner (mis. semua todo user yang dihapus), satu synchronization
+    public void publishAllAfterCommit(TodoEvent.Type type, Collection<Long> ids, String owner) {
+        AfterCommit.run(() -> ids.forEach(id -> publish(new TodoEvent(type, id, owner, null))));
+    }
+
+    // tutup semua koneksi milik user (sebagai owner maupun admin)
+    public void closeUser(Long userId) {
+        if (userId == null) return;
+
+        adminSubscribers.stream()
+                .filter(subscriber -> userId.equals(subscriber.userId))
+                .forEach(Subscriber::close);
+        userSubscribers.values().forEach(subscribers -> subscribers.stream()
+                .filter(subscriber -> userId.equals(subscriber.userId))
+                .forEach(Subscriber::close));
+    }
+
+    // dipakai untuk skip query tambahan kalau tidak ada yang mendengarkan
+    public boolean hasSubscribers() {
+        return connections.get() > 0;
+    }
+
+    private void publish(TodoEvent event) {
+        Set<Subscriber> owners = userSubscribers.get(event.owner());
+        if ((owners == null || owners.isEmpty()) && adminSubscribers.isEmpty()) return;
+
+        // serialisasi sekali, dikirim ke semua koneksi
+        Message message;
+        try {
+            message = new Message(event.type().name().toLowerCase(), objectMapper.writeValueAsString(event));
+        } catch (JsonProcessingException ex) {
+            log.error("Failed to serialize todo event", ex);
+            return;
+        }
+
+        if (owners != null) owners.forEach(subscriber -> subscriber.offer(message));
+        adminSubscribers.forEach(subscriber -> subscriber.offer(message));
+    }
+
+    // Comment SSE berkala supaya proxy tidak menutup koneksi idle dan koneksi mati cepat terdeteksi
+    @Scheduled(fixedDelayString = "${app.todo-events.heartbeat-interval-ms:30000}")
+    public void heartbeat() {
+        userSubscribers.values().forEach(subscribers -> subscribers.forEach(subscriber -> subscriber.offer(HEARTBEAT)));
+        adminSubscribers.forEach(subscriber -> subscriber.offer(HEARTBEAT));
+    }
+
+    // data = null untuk heartbeat
+    private record Message(String name, String data) {
+    }
+
+    private final class Subscriber {
+
+        private final String username;
+
+        private final Long userId;
+
+        private final boolean admin;
+
+        private final SseEmitter emitter;
+
+        // queue dibuat kosong, memori baru terpakai saat ada event yang belum terkirim
+        private final Queue<Message> queue = new ConcurrentLinkedQueue<>();
+
+        private final AtomicInteger pending = new AtomicInteger();
+
+        private final AtomicBoolean draining = new AtomicBoolean();
+
+        private final AtomicBoolean removed = new AtomicBoolean();
+
+        Subscriber(String username, Long userId, boolean admin, SseEmitter emitter) {
+            this.username = username;
+            this.userId = userId;
+            this.admin = admin;
+            this.emitter = emitter;
+        }
+
+        void offer(Message message) {
+            if (removed.get()) return;
+
+            if (pending.incrementAndGet() > bufferSize) {
+                pending.decrementAndGet();
+                slowConsumerEvictions.increment();
+                close();
+                return;
+            }
+
+            queue.add(message);
+            scheduleDrain();
+        }
+
+        // hanya satu worker yang mengirim ke koneksi ini pada satu waktu, urutan event tetap terjaga
+        private void scheduleDrain() {
+            if (!draining.compareAndSet(false, true)) return;
+
+            try {
+                todoEventExecutor.execute(this::drain);
+            } catch (RejectedExecutionException ex) {
+                draining.set(false);
+                close();
+            }
+        }
+
+        private void drain() {
+            do {
+                Message message;
+                while ((message = queue.poll()) != null) {
+                    pending.decrementAndGet();
+                    if (removed.get()) continue;
+
+                    try {
+                        if (message.data() == null) {
+                            emitter.send(SseEmitter.event().comment("heartbeat"));
+                        } else {
+                            emitter.send(SseEmitter.event().name(message.name()).data(message.data()));
+                        }
+                    } catch (IOException | IllegalStateException ex) {
+                        close();
+                    }
+                }
+                draining.set(false);
+            } while (!queue.isEmpty() && draining.compareAndSet(false, true));
+        }
+
+        void close() {
+            remove();
+            try {
+                emitter.complete();
+            } catch (IllegalStateException ignored) {
+                // emitter sudah selesai
+            }
+        }
+
+        void remove() {
+            if (!removed.compareAndSet(false, true)) return;
+
+            connections.decrementAndGet();
+            queue.clear();
+            if (admin) {
+                adminSubscribers.remove(this);
+            } else {
+                userSubscribers.computeIfPresent(username, (key, subscribers) -> {
+                    subscribers.remove(this);
+                    return subscribers.isEmpty() ? null : subscribers;
+                });
+            }
+        }
+    }
+}
@@ -0,0 +1,16 @@
+package com.myproject.todo_management.exception;
+
+import lombok.Getter;
+import org.springframework.http.HttpStatus;
+
+// 429 yang membawa nilai header Retry-After
+@Getter
+public class RateLimitExceededException extends TodoAPIException {
+
+    private final long retryAfterSeconds;
+
+    public RateLimitExceededException(String message, long retryAfterSeconds) {
+        super(HttpStatus.TOO_MANY_REQUESTS, message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+}
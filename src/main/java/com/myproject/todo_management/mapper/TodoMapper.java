@@ -0,0 +1,32 @@
+package com.myproject.todo_management.mapper;
+
+import com.myproject.todo_management.dto.TodoDto;
+import com.myproject.todo_management.entity.Todo;
+
+// Mapping manual Todo <-> TodoDto (pengganti ModelMapper yang pakai reflection di setiap response)
+public class TodoMapper {
+
+    private TodoMapper() {
+    }
+
+    public static TodoDto mapToTodoDto(Todo todo) {
+        return new TodoDto(
+                todo.getId(),
+                todo.getTitle(),
+                todo.getDescription(),
+                todo.isCompleted(),
+                todo.getCreatedBy(),
+                todo.getUpdatedBy(),
+                todo.getVersion()
+        );
+    }
+
+    // id, user & audit field di-set oleh service, bukan dari request
+    public static Todo mapToTodo(TodoDto todoDto) {
+        Todo todo = new Todo();
+        todo.setTitle(todoDto.getTitle());
+        todo.setDescription(todoDto.getDescription());
+        todo.setCompleted(todoDto.isCompleted());
+        return todo;
+    }
+}
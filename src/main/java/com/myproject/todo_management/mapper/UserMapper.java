@@ -0,0 +1,38 @@
+package com.myproject.todo_management.mapper;
+
+import com.myproject.todo_management.dto.RegisterDto;
+import com.myproject.todo_management.entity.User;
+
+// Mapping manual User <-> RegisterDto (pengganti ModelMapper yang pakai reflection di setiap response)
+public class UserMapper {
+
+    private UserMapper() {
+    }
+
+    // password sengaja tidak ikut, RegisterDto.password hanya untuk request (WRITE_ONLY)
+    public static RegisterDto mapToRegisterDto(User user) {
+        RegisterDto registerDto = new RegisterDto();
+        registerDto.setId(user.getId());
+        registerDto.setName(user.getName());
+        registerDto.setUsername(user.getUsername());
+        registerDto.setEmail(user.getEmail());
+        registerDto.setBirthDate(user.getBirthDate());
+        registerDto.setJobTitle(user.getJobTitle());
+        registerDto.setLocation(user.getLocation());
+        registerDto.setProfilePhoto(user.getProfilePhoto());
+        registerDto.setVersion(user.getVersion());
+        return registerDto;
+    }
+
+    // password, foto, role & audit field di-set oleh service
+    public static User mapToUser(RegisterDto registerDto) {
+        User user = new User();
+        user.setName(registerDto.getName());
+        user.setUsername(registerDto.getUsername());
+        user.setEmail(registerDto.getEmail());
+        user.setBirthDate(registerDto.getBirthDate());
+        user.setJobTitle(registerDto.getJobTitle());
+        user.setLocation(registerDto.getLocation());
+        return user;
+    }
+}
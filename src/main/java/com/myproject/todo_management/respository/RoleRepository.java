@@ -1,8 +1,13 @@
 package com.myproject.todo_management.respository;
 
 import com.myproject.todo_management.entity.Role;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.QueryHints;
 
 public interface RoleRepository extends JpaRepository<Role, Long> {
+    // dipanggil setiap register, hasilnya (id role) disimpan di query cache
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     Role findByName(String name);
 }
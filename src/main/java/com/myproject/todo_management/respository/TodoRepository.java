@@ -1,22 +1,138 @@
 package com.myproject.todo_management.respository;
 
+import com.myproject.todo_management.dto.TodoCountDto;
+import com.myproject.todo_management.dto.TodoDto;
+import com.myproject.todo_management.dto.TodoVersionDto;
 import com.myproject.todo_management.entity.Todo;
 import com.myproject.todo_management.entity.User;
+import jakarta.persistence.LockModeType;
 import jakarta.transaction.Transactional;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
-public interface TodoRepository extends JpaRepository<Todo, Long> {
+public interface TodoRepository extends JpaRepository<Todo, Long>, JpaSpecificationExecutor<Todo> {
     boolean existsByTitleAndUser(String title, User user);
 
     Page<Todo> findByCreatedBy(String createdBy, Pageable pageable);
 
+    // Projection langsung ke TodoDto: hanya kolom yang dikirim ke client, entity tidak masuk persistence context
+    @Query(value = "SELECT new com.myproject.todo_management.dto.TodoDto(t.id, t.title, t.description, t.completed, t.createdBy, t.updatedBy, t.version) " +
+            "FROM Todo t WHERE t.createdBy = :createdBy",
+            countQuery = "SELECT COUNT(t) FROM Todo t WHERE t.createdBy = :createdBy")
+    Page<TodoDto> findTodoDtoByCreatedBy(@Param("createdBy") String createdBy, Pageable pageable);
+
+    @Query(value = "SELECT new com.myproject.todo_management.dto.TodoDto(t.id, t.title, t.description, t.completed, t.createdBy, t.updatedBy, t.version) " +
+            "FROM Todo t",
+            countQuery = "SELECT COUNT(t) FROM Todo t")
+    Page<TodoDto> findAllTodoDto(Pageable pageable);
+
+    // Versi Slice (tanpa COUNT), dipakai kalau total sudah ada di PageCountCache
+    @Query("SELECT new com.myproject.todo_management.dto.TodoDto(t.id, t.title, t.description, t.completed, t.createdBy, t.updatedBy, t.version) " +
+            "FROM Todo t WHERE t.createdBy = :createdBy")
+    Slice<TodoDto> findTodoDtoSliceByCreatedBy(@Param("createdBy") String createdBy, Pageable pageable);
+
+    @Query("SELECT new com.myproject.todo_management.dto.TodoDto(t.id, t.title, t.description, t.completed, t.createdBy, t.updatedBy, t.version) " +
+            "FROM Todo t")
+    Slice<TodoDto> findAllTodoDtoSlice(Pageable pageable);
+
+    // Keyset pagination: lanjut dari id terakhir, tanpa OFFSET dan tanpa COUNT(*)
+    @Query("SELECT new com.myproject.todo_management.dto.TodoDto(t.id, t.title, t.description, t.completed, t.createdBy, t.updatedBy, t.version) " +
+            "FROM Todo t WHERE t.createdBy = :createdBy AND t.id > :afterId ORDER BY t.id")
+    List<TodoDto> findTodoDtoByCreatedByAfter(@Param("createdBy") String createdBy, @Param("afterId") Long afterId, Limit limit);
+
+    @Query("SELECT new com.myproject.todo_management.dto.TodoDto(t.id, t.title, t.description, t.completed, t.createdBy, t.updatedBy, t.version) " +
+            "FROM Todo t WHERE t.id > :afterId ORDER BY t.id")
+    List<TodoDto> findAllTodoDtoAfter(@Param("afterId") Long afterId, Limit limit);
+
+    long countByCreatedBy(String createdBy);
+
+    long countByCreatedByAndCompleted(String createdBy, boolean completed);
+
+    long countByCompleted(boolean completed);
+
+    // Statistik per owner untuk reconcile counter, cukup baca index (created_by, completed, id)
+    @Query("SELECT new com.myproject.todo_management.dto.TodoCountDto(t.createdBy, COUNT(t), " +
+            "SUM(CASE WHEN t.completed = true THEN 1L ELSE 0L END)) " +
+            "FROM Todo t GROUP BY t.createdBy")
+    List<TodoCountDto> countGroupByCreatedBy();
+
+    // Todo yang statusnya akan berubah oleh bulk complete / in-complete. Baris di-lock (FOR UPDATE),
+    // jadi UPDATE berikutnya mengubah tepat baris ini dan versi barunya = version + 1
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT new com.myproject.todo_management.dto.TodoVersionDto(t.id, t.version, t.createdBy) " +
+            "FROM Todo t WHERE t.id IN :ids AND t.createdBy = :createdBy AND t.completed <> :completed")
+    List<TodoVersionDto> findChangingByCreatedByForUpdate(@Param("ids") Collection<Long> ids,
+                                                          @Param("createdBy") String createdBy,
+                                                          @Param("completed") boolean completed);
+
+    // versi ADMIN, tanpa filter pemilik
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT new com.myproject.todo_management.dto.TodoVersionDto(t.id, t.version, t.createdBy) " +
+            "FROM Todo t WHERE t.id IN :ids AND t.completed <> :completed")
+    List<TodoVersionDto> findChangingForUpdate(@Param("ids") Collection<Long> ids,
+                                               @Param("completed") boolean completed);
+
+    // Delta sync: todo yang berubah setelah watermark (time_updated, id), pakai index (created_by, time_updated)
+    @Query("SELECT t FROM Todo t WHERE t.createdBy = :createdBy AND t.timeUpdated <= :until " +
+            "AND (t.timeUpdated > :since OR (t.timeUpdated = :since AND t.id > :afterId)) " +
+            "ORDER BY t.timeUpdated, t.id")
+    List<Todo> findChangedByCreatedBy(@Param("createdBy") String createdBy,
+                                      @Param("since") LocalDateTime since,
+                                      @Param("afterId") Long afterId,
+                                      @Param("until") LocalDateTime until,
+                                      Limit limit);
+
+    // versi ADMIN, tanpa filter pemilik
+    @Query("SELECT t FROM Todo t WHERE t.timeUpdated <= :until " +
+            "AND (t.timeUpdated > :since OR (t.timeUpdated = :since AND t.id > :afterId)) " +
+            "ORDER BY t.timeUpdated, t.id")
+    List<Todo> findChanged(@Param("since") LocalDateTime since,
+                           @Param("afterId") Long afterId,
+                           @Param("until") LocalDateTime until,
+                           Limit limit);
+
+    // Cek keunikan title untuk banyak todo sekaligus (bulk), satu query
+    @Query("SELECT t.title FROM Todo t WHERE t.user = :user AND t.title IN :titles")
+    List<String> findTitlesByUserAndTitleIn(@Param("user") User user, @Param("titles") Collection<String> titles);
+
+    // Set-based complete / in-complete: satu UPDATE untuk banyak todo, hanya milik createdBy
+    @Modifying
+    @Query("UPDATE Todo t SET t.completed = :completed, t.version = t.version + 1, t.updatedBy = :updatedBy, t.timeUpdated = :now " +
+            "WHERE t.id IN :ids AND t.createdBy = :createdBy AND t.completed <> :completed")
+    int updateCompletedByIdsAndCreatedBy(@Param("ids") Collection<Long> ids,
+                                         @Param("createdBy") String createdBy,
+                                         @Param("completed") boolean completed,
+                                         @Param("updatedBy") String updatedBy,
+                                         @Param("now") LocalDateTime now);
+
+    // versi ADMIN, tanpa filter pemilik
+    @Modifying
+    @Query("UPDATE Todo t SET t.completed = :completed, t.version = t.version + 1, t.updatedBy = :updatedBy, t.timeUpdated = :now " +
+            "WHERE t.id IN :ids AND t.completed <> :completed")
+    int updateCompletedByIds(@Param("ids") Collection<Long> ids,
+                             @Param("completed") boolean completed,
+                             @Param("updatedBy") String updatedBy,
+                             @Param("now") LocalDateTime now);
+
+    // Todo milik user yang akan dihapus, di-lock sampai commit (tidak ada todo baru / berubah di antara baca dan DELETE).
+    // Tombstone dibuat dari daftar ini setelah DELETE, supaya deleted_at sedekat mungkin dengan commit
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT new com.myproject.todo_management.dto.TodoVersionDto(t.id, t.version, t.createdBy) " +
+            "FROM Todo t WHERE t.user.id = :userId")
+    List<TodoVersionDto> findByUserIdForUpdate(@Param("userId") Long userId);
+
     @Modifying
     @Transactional
     @Query("DELETE FROM Todo t WHERE t.user.id = :userId")
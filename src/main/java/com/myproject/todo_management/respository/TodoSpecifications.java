@@ -0,0 +1,44 @@
+package com.myproject.todo_management.respository;
+
+import com.myproject.todo_management.dto.TodoFilter;
+import com.myproject.todo_management.entity.Todo;
+import jakarta.persistence.criteria.Predicate;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// Filter list todo jadi satu WHERE: created_by selalu di depan supaya pakai index (created_by, ...)
+public class TodoSpecifications {
+
+    private TodoSpecifications() {
+    }
+
+    // createdBy = null -> semua todo (ADMIN)
+    public static Specification<Todo> matching(String createdBy, TodoFilter filter) {
+        return (root, query, cb) -> {
+            List<Predicate> predicates = new ArrayList<>();
+
+            if (createdBy != null) {
+                predicates.add(cb.equal(root.get("createdBy"), createdBy));
+            }
+            if (filter.getCompleted() != null) {
+                predicates.add(cb.equal(root.get("completed"), filter.getCompleted()));
+            }
+            if (filter.getCreatedFrom() != null) {
+                predicates.add(cb.greaterThanOrEqualTo(root.get("timeCreated"), filter.getCreatedFrom()));
+            }
+            if (filter.getCreatedTo() != null) {
+                predicates.add(cb.lessThan(root.get("timeCreated"), filter.getCreatedTo()));
+            }
+            if (filter.getUpdatedFrom() != null) {
+                predicates.add(cb.greaterThanOrEqualTo(root.get("timeUpdated"), filter.getUpdatedFrom()));
+            }
+            if (filter.getUpdatedTo() != null) {
+                predicates.add(cb.lessThan(root.get("timeUpdated"), filter.getUpdatedTo()));
+            }
+
+            return cb.and(predicates.toArray(new Predicate[0]));
+        };
+    }
+}
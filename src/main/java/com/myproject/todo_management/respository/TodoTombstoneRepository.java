@@ -0,0 +1,29 @@
+package com.myproject.todo_management.respository;
+
+import com.myproject.todo_management.entity.TodoTombstone;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface TodoTombstoneRepository extends JpaRepository<TodoTombstone, Long> {
+
+    // hanya id yang dibutuhkan client untuk menghapus todo di sisinya
+    @Query("SELECT tt.todoId FROM TodoTombstone tt " +
+            "WHERE tt.createdBy = :createdBy AND tt.deletedAt > :since AND tt.deletedAt <= :until")
+    List<Long> findTodoIdsByCreatedByDeletedBetween(@Param("createdBy") String createdBy,
+                                                    @Param("since") LocalDateTime since,
+                                                    @Param("until") LocalDateTime until);
+
+    // versi ADMIN, tanpa filter pemilik
+    @Query("SELECT tt.todoId FROM TodoTombstone tt WHERE tt.deletedAt > :since AND tt.deletedAt <= :until")
+    List<Long> findTodoIdsDeletedBetween(@Param("since") LocalDateTime since,
+                                         @Param("until") LocalDateTime until);
+
+    @Modifying
+    @Query("DELETE FROM TodoTombstone tt WHERE tt.deletedAt < :before")
+    int deleteByDeletedAtBefore(@Param("before") LocalDateTime before);
+}
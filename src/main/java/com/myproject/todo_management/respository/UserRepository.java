@@ -1,8 +1,19 @@
 package com.myproject.todo_management.respository;
 
+import com.myproject.todo_management.dto.RegisterDto;
 import com.myproject.todo_management.entity.User;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Optional;
 
 public interface UserRepository extends JpaRepository<User, Long> {
@@ -15,4 +26,33 @@ public interface UserRepository extends JpaRepository<User, Long> {
     Optional<User> findByUsernameOrEmail(String username, String email);
 
     Boolean existsByUsername(String username);
+
+    // Projection untuk list user: tanpa password & tanpa join roles (tidak ada N+1)
+    @Query(value = "SELECT new com.myproject.todo_management.dto.RegisterDto(u.id, u.name, u.username, u.email, u.birthDate, u.jobTitle, u.location, u.profilePhoto, u.version) " +
+            "FROM User u",
+            countQuery = "SELECT COUNT(u) FROM User u")
+    Page<RegisterDto> findAllRegisterDto(Pageable pageable);
+
+    // Versi Slice (tanpa COUNT), dipakai kalau total sudah ada di PageCountCache
+    @Query("SELECT new com.myproject.todo_management.dto.RegisterDto(u.id, u.name, u.username, u.email, u.birthDate, u.jobTitle, u.location, u.profilePhoto, u.version) " +
+            "FROM User u")
+    Slice<RegisterDto> findAllRegisterDtoSlice(Pageable pageable);
+
+    // Keyset pagination: lanjut dari id terakhir, tanpa OFFSET dan tanpa COUNT(*)
+    @Query("SELECT new com.myproject.todo_management.dto.RegisterDto(u.id, u.name, u.username, u.email, u.birthDate, u.jobTitle, u.location, u.profilePhoto, u.version) " +
+            "FROM User u WHERE u.id > :afterId ORDER BY u.id")
+    List<RegisterDto> findAllRegisterDtoAfter(@Param("afterId") Long afterId, Limit limit);
+
+    // Catatan login (updatedAt / updatedBy) tanpa menaikkan version: login tidak mengubah data user,
+    // jadi ETag tidak boleh berubah dan tidak bentrok dengan updateRegister / updatePassword yang berjalan bersamaan
+    @Modifying
+    @Transactional
+    @Query("UPDATE User u SET u.updatedAt = :now, u.updatedBy = :updatedBy WHERE u.id = :id")
+    int updateLoginAudit(@Param("id") Long id, @Param("updatedBy") String updatedBy, @Param("now") LocalDateTime now);
+
+    // Rehash password saat login, hanya kalau hash belum diganti (updatePassword di antara baca dan tulis menang)
+    @Modifying
+    @Transactional
+    @Query("UPDATE User u SET u.password = :newHash WHERE u.id = :id AND u.password = :oldHash")
+    int rehashPassword(@Param("id") Long id, @Param("oldHash") String oldHash, @Param("newHash") String newHash);
 }
@@ -0,0 +1,321 @@
+package com.myproject.todo_management.search;
+
+import com.myproject.todo_management.dto.TodoDto;
+import com.myproject.todo_management.respository.TodoRepository;
+import com.myproject.todo_management.utils.AfterCommit;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+
+// Inverted index in-memory untuk search title & description todo, satu shard per owner (created_by).
+// Di-update setelah commit oleh TodoServiceImpl, dibangun ulang dari database saat startup.
+@Component
+@Slf4j
+public class TodoSearchIndex {
+
+    private static final Pattern TOKEN_SEPARATOR = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+    private static final int REBUILD_BATCH_SIZE = 5000;
+
+    // backoff kalau rebuild gagal (mis. database belum siap), naik 2x sampai batas atas
+    private static final long REBUILD_MIN_BACKOFF_MS = 1_000;
+
+    private static final long REBUILD_MAX_BACKOFF_MS = 300_000;
+
+    // owner -> index todo milik owner tersebut
+    private final Map<String, OwnerIndex> owners = new ConcurrentHashMap<>();
+
+    // id todo -> owner, untuk update massal yang hanya tahu id
+    private final Map<Long, String> documentOwners = new ConcurrentHashMap<>();
+
+    // todo / owner yang dihapus selama rebuild, supaya tidak dimasukkan lagi dari data lama
+    private final Set<Long> deletedDuringRebuild = ConcurrentHashMap.newKeySet();
+
+    private final Set<String> ownersDeletedDuringRebuild = ConcurrentHashMap.newKeySet();
+
+    private volatile boolean ready;
+
+    private final TodoRepository todoRepository;
+
+    public TodoSearchIndex(TodoRepository todoRepository, MeterRegistry meterRegistry) {
+        this.todoRepository = todoRepository;
+        Gauge.builder("todo.search.documents", documentOwners, Map::size).register(meterRegistry);
+    }
+
+    // Rebuild di background, aplikasi sudah bisa melayani request lain selama index dibangun
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuildOnStartup() {
+        Thread.ofPlatform()
+                .name("todo-search-rebuild")
+                .daemon()
+                .start(this::rebuild);
+    }
+
+    void rebuild() {
+        long start = System.nanoTime();
+        long afterId = 0;
+        int total = 0;
+        long backoffMillis = REBUILD_MIN_BACKOFF_MS;
+
+        // baca database per batch (keyset by id), tiap batch di-index paralel (shard per owner jarang rebutan lock).
+        // Batch yang gagal dicoba lagi dengan backoff, lanjut dari batch terakhir yang berhasil.
+        while (true) {
+            try {
+                List<TodoDto> batch = todoRepository.findAllTodoDtoAfter(afterId, Limit.of(REBUILD_BATCH_SIZE));
+                batch.parallelStream().forEach(this::putFromRebuild);
+
+                total += batch.size();
+                if (batch.size() < REBUILD_BATCH_SIZE) break;
+                afterId = batch.get(batch.size() - 1).getId();
+                backoffMillis = REBUILD_MIN_BACKOFF_MS;
+            } catch (RuntimeException ex) {
+                log.error("Failed to build todo search index, retrying in {} ms", backoffMillis, ex);
+                if (!sleep(backoffMillis)) return;
+                backoffMillis = Math.min(backoffMillis * 2, REBUILD_MAX_BACKOFF_MS);
+            }
+        }
+
+        ready = true;
+        deletedDuringRebuild.clear();
+        ownersDeletedDuringRebuild.clear();
+        log.info("Todo search index built with {} todos in {} ms",
+                total, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    // owner = null -> semua todo (ADMIN). Semua kata harus cocok (AND), tiap kata dicocokkan sebagai prefix.
+    public List<TodoDto> search(String owner, String query, int limit) {
+        List<String> tokens = new ArrayList<>(tokenize(query));
+        if (tokens.isEmpty()) return List.of();
+
+        List<TodoDto> results = new ArrayList<>();
+        if (owner != null) {
+            OwnerIndex index = owners.get(owner);
+            if (index != null) results.addAll(index.search(tokens, limit));
+        } else {
+            owners.values().forEach(index -> results.addAll(index.search(tokens, limit)));
+        }
+
+        // terbaru dulu
+        results.sort(Comparator.comparing(TodoDto::getId).reversed());
+        return results.size() > limit ? results.subList(0, limit) : results;
+    }
+
+    public void putAfterCommit(TodoDto todo) {
+        AfterCommit.run(() -> put(todo));
+    }
+
+    public void removeAfterCommit(Long id, String owner) {
+        AfterCommit.run(() -> remove(id, owner));
+    }
+
+    public void removeOwnerAfterCommit(String owner) {
+        AfterCommit.run(() -> {
+            if (!ready) ownersDeletedDuringRebuild.add(owner);
+
+            OwnerIndex index = owners.remove(owner);
+            if (index != null) index.drop();
+        });
+    }
+
+    // Sama dengan UPDATE massal di TodoRepository: hanya todo yang statusnya berbeda yang berubah (version + 1).
+    // owner = null -> tanpa filter pemilik (ADMIN).
+    public void markCompletedAfterCommit(Collection<Long> ids, String owner, boolean completed, String updatedBy) {
+        AfterCommit.run(() -> {
+            for (Long id : ids) {
+                String documentOwner = documentOwners.get(id);
+                if (documentOwner == null || (owner != null && !owner.equals(documentOwner))) continue;
+
+                OwnerIndex index = owners.get(documentOwner);
+                if (index != null) index.markCompleted(id, completed, updatedBy);
+            }
+        });
+    }
+
+    private void put(TodoDto todo) {
+        owners.computeIfAbsent(todo.getCreatedBy(), key -> new OwnerIndex()).put(todo, false);
+    }
+
+    // Data rebuild bisa lebih lama dari delete yang sudah commit: cek tombstone dilakukan di dalam write lock
+    // OwnerIndex, jadi remove() yang berjalan bersamaan tidak bisa terselip di antara cek dan put
+    private void putFromRebuild(TodoDto todo) {
+        owners.computeIfAbsent(todo.getCreatedBy(), key -> new OwnerIndex()).put(todo, true);
+    }
+
+    private void remove(Long id, String owner) {
+        if (!ready) deletedDuringRebuild.add(id);
+
+        OwnerIndex index = owners.get(owner);
+        if (index != null) {
+            index.remove(id);
+        } else {
+            documentOwners.remove(id);
+        }
+    }
+
+    private static boolean sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+            return true;
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private static Set<String> tokenize(String text) {
+        Set<String> tokens = new LinkedHashSet<>();
+        if (text == null) return tokens;
+
+        for (String token : TOKEN_SEPARATOR.split(text.toLowerCase(Locale.ROOT))) {
+            if (!token.isEmpty()) tokens.add(token);
+        }
+        return tokens;
+    }
+
+    private static long versionOf(TodoDto todo) {
+        return todo.getVersion() == null ? 0 : todo.getVersion();
+    }
+
+    // Index satu owner: token (urut, untuk prefix) -> id todo. Baca paralel, tulis eksklusif.
+    // documentOwners untuk todo owner ini juga hanya diubah di dalam write lock.
+    private final class OwnerIndex {
+
+        private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+        private final TreeMap<String, Set<Long>> postings = new TreeMap<>();
+
+        private final Map<Long, Document> documents = new HashMap<>();
+
+        // owner sudah dihapus (removeOwnerAfterCommit), put berikutnya ke index ini diabaikan
+        private boolean dropped;
+
+        void put(TodoDto todo, boolean fromRebuild) {
+            lock.writeLock().lock();
+            try {
+                if (dropped) return;
+                if (fromRebuild && (deletedDuringRebuild.contains(todo.getId())
+                        || ownersDeletedDuringRebuild.contains(todo.getCreatedBy()))) return;
+
+                Document existing = documents.get(todo.getId());
+                // data rebuild yang lebih lama tidak boleh menimpa update terbaru
+                if (existing != null && versionOf(existing.todo()) > versionOf(todo)) return;
+
+                if (existing != null) removePostings(existing);
+
+                Set<String> tokens = tokenize(todo.getTitle() + " " + todo.getDescription());
+                documents.put(todo.getId(), new Document(todo, tokens));
+                tokens.forEach(token -> postings.computeIfAbsent(token, key -> new HashSet<>()).add(todo.getId()));
+                documentOwners.put(todo.getId(), todo.getCreatedBy());
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+
+        void remove(Long id) {
+            lock.writeLock().lock();
+            try {
+                Document existing = documents.remove(id);
+                if (existing != null) removePostings(existing);
+                documentOwners.remove(id);
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+
+        void drop() {
+            lock.writeLock().lock();
+            try {
+                dropped = true;
+                documents.keySet().forEach(documentOwners::remove);
+                documents.clear();
+                postings.clear();
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+
+        void markCompleted(Long id, boolean completed, String updatedBy) {
+            lock.writeLock().lock();
+            try {
+                Document existing = documents.get(id);
+                if (existing == null || existing.todo().isCompleted() == completed) return;
+
+                TodoDto todo = existing.todo();
+                TodoDto updated = new TodoDto(todo.getId(), todo.getTitle(), todo.getDescription(), completed,
+                        todo.getCreatedBy(), updatedBy, versionOf(todo) + 1);
+                // title & description tidak berubah, postings tetap
+                documents.put(id, new Document(updated, existing.tokens()));
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+
+        List<TodoDto> search(List<String> tokens, int limit) {
+            lock.readLock().lock();
+            try {
+                // kandidat per kata (gabungan semua token dengan prefix tsb), mulai dari yang paling sedikit
+                List<Set<Long>> matches = new ArrayList<>(tokens.size());
+                for (String token : tokens) {
+                    Set<Long> ids = new HashSet<>();
+                    postings.subMap(token, true, token + Character.MAX_VALUE, false)
+                            .values()
+                            .forEach(ids::addAll);
+                    if (ids.isEmpty()) return List.of();
+                    matches.add(ids);
+                }
+                matches.sort(Comparator.comparingInt(Set::size));
+
+                Set<Long> result = matches.get(0);
+                for (int i = 1; i < matches.size() && !result.isEmpty(); i++) {
+                    result.retainAll(matches.get(i));
+                }
+
+                return result.stream()
+                        .sorted(Comparator.reverseOrder())
+                        .limit(limit)
+                        .map(id -> documents.get(id).todo())
+                        .toList();
+            } finally {
+                lock.readLock().unlock();
+            }
+        }
+
+        private void removePostings(Document document) {
+            for (String token : document.tokens()) {
+                Set<Long> ids = postings.get(token);
+                if (ids == null) continue;
+
+                ids.remove(document.todo().getId());
+                if (ids.isEmpty()) postings.remove(token);
+            }
+        }
+    }
+
+    private record Document(TodoDto todo, Set<String> tokens) {
+    }
+}
@@ -0,0 +1,92 @@
+package com.myproject.todo_management.security;
+
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+// BCrypt dengan cost (work factor) yang dikalibrasi saat startup sesuai target waktu verifikasi.
+// Hash yang cost-nya beda dari cost sekarang dianggap perlu di-rehash (naik atau turun).
+public class AdaptiveBCryptPasswordEncoder implements PasswordEncoder {
+
+    private static final Logger logger = LoggerFactory.getLogger(AdaptiveBCryptPasswordEncoder.class);
+
+    // cost yang dipakai untuk mengukur waktu hashing saat kalibrasi
+    private static final int PROBE_STRENGTH = 10;
+
+    private static final int PROBE_ROUNDS = 3;
+
+    private final int strength;
+
+    private final BCryptPasswordEncoder encoder;
+
+    public AdaptiveBCryptPasswordEncoder(int strength) {
+        this.strength = strength;
+        this.encoder = new BCryptPasswordEncoder(strength);
+    }
+
+    // Cari cost terbesar yang waktu hash-nya masih <= targetMillis (setiap cost +1 = waktu x2)
+    public static AdaptiveBCryptPasswordEncoder calibrate(long targetMillis, int minStrength, int maxStrength) {
+        BCryptPasswordEncoder probe = new BCryptPasswordEncoder(PROBE_STRENGTH);
+
+        long bestNanos = Long.MAX_VALUE;
+        for (int i = 0; i < PROBE_ROUNDS; i++) {
+            long start = System.nanoTime();
+            probe.encode("calibration-password");
+            bestNanos = Math.min(bestNanos, System.nanoTime() - start);
+        }
+
+        double probeMillis = Math.max(bestNanos / 1_000_000.0, 0.001);
+        int strength = PROBE_STRENGTH + (int) Math.floor(Math.log(targetMillis / probeMillis) / Math.log(2));
+        strength = Math.max(minStrength, Math.min(maxStrength, strength));
+
+        logger.info("BCrypt calibrated: cost {} took {} ms, using cost {} for target {} ms",
+                PROBE_STRENGTH, String.format("%.1f", probeMillis), strength, targetMillis);
+
+        return new AdaptiveBCryptPasswordEncoder(strength);
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        Timer.Sample sample = Timer.start();
+        String encoded = encoder.encode(rawPassword);
+        sample.stop(timer("encode", strength));
+        return encoded;
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        Timer.Sample sample = Timer.start();
+        boolean matches = encoder.matches(rawPassword, encodedPassword);
+        sample.stop(timer("matches", extractStrength(encodedPassword)));
+        return matches;
+    }
+
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        int hashStrength = extractStrength(encodedPassword);
+        return hashStrength > 0 && hashStrength != strength;
+    }
+
+    // format hash: $2a$10$...
+    private int extractStrength(String encodedPassword) {
+        if (encodedPassword == null || encodedPassword.length() < 7 || encodedPassword.charAt(0) != '$') {
+            return -1;
+        }
+        try {
+            return Integer.parseInt(encodedPassword.substring(4, 6));
+        } catch (NumberFormatException ex) {
+            return -1;
+        }
+    }
+
+    // global registry, Spring Boot ikut mendaftarkan MeterRegistry-nya ke sini
+    private Timer timer(String operation, int cost) {
+        return Timer.builder("password.hash")
+                .tag("operation", operation)
+                .tag("cost", String.valueOf(cost))
+                .register(Metrics.globalRegistry);
+    }
+}
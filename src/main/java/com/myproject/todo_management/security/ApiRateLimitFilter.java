@@ -0,0 +1,138 @@
+package com.myproject.todo_management.security;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Rate limit + batas request bersamaan per user untuk /api/todos/**, dipasang setelah JwtAuthenticationFilter
+// supaya principal sudah diketahui. Limit dibedakan per role (ADMIN / USER).
+@Component
+public class ApiRateLimitFilter extends OncePerRequestFilter {
+
+    private static final DateTimeFormatter TIMESTAMP_FORMATTER =
+            DateTimeFormatter.ofPattern("yyyy:MM:dd HH:mm:ss");
+
+    private static final String ROLE_ADMIN = "ROLE_ADMIN";
+
+    private final RoleLimit adminLimit;
+
+    private final RoleLimit userLimit;
+
+    private final ConcurrencyLimiter concurrencyLimiter;
+
+    private final Counter rateRejected;
+
+    private final Counter concurrencyRejected;
+
+    public ApiRateLimitFilter(@Value("${app.api-rate-limit.admin.requests-per-minute:600}") long adminRequestsPerMinute,
+                              @Value("${app.api-rate-limit.admin.max-concurrent:16}") int adminMaxConcurrent,
+                              @Value("${app.api-rate-limit.user.requests-per-minute:120}") long userRequestsPerMinute,
+                              @Value("${app.api-rate-limit.user.max-concurrent:4}") int userMaxConcurrent,
+                              @Value("${app.api-rate-limit.max-keys:100000}") int maxKeys,
+                              MeterRegistry meterRegistry) {
+        this.adminLimit = new RoleLimit(
+                new TokenBucketRateLimiter(adminRequestsPerMinute, adminRequestsPerMinute, 60_000, maxKeys),
+                adminMaxConcurrent);
+        this.userLimit = new RoleLimit(
+                new TokenBucketRateLimiter(userRequestsPerMinute, userRequestsPerMinute, 60_000, maxKeys),
+                userMaxConcurrent);
+        this.concurrencyLimiter = new ConcurrencyLimiter(maxKeys);
+        this.rateRejected = Counter.builder("api.rate.limit.rejected")
+                .tag("reason", "rate")
+                .register(meterRegistry);
+        this.concurrencyRejected = Counter.builder("api.rate.limit.rejected")
+                .tag("reason", "concurrency")
+                .register(meterRegistry);
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !request.getServletPath().startsWith("/api/todos");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain) throws ServletException, IOException {
+
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+
+        // request tanpa login ditolak oleh Spring Security, tidak perlu dihitung di sini
+        if (authentication == null || !authentication.isAuthenticated()) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        String username = authentication.getName();
+        RoleLimit limit = isAdmin(authentication) ? adminLimit : userLimit;
+
+        long remaining = limit.rateLimiter().tryConsume(username);
+        response.setHeader("RateLimit-Limit", limit.limitHeader());
+        response.setHeader("RateLimit-Remaining", String.valueOf(Math.max(0, remaining)));
+        response.setHeader("RateLimit-Reset", String.valueOf(limit.rateLimiter().getResetSeconds(Math.max(0, remaining))));
+
+        if (remaining < 0) {
+            rateRejected.increment();
+            reject(request, response, limit.rateLimiter().getRetryAfterSeconds(), "Too many requests, please slow down");
+            return;
+        }
+
+        AtomicInteger inFlight = concurrencyLimiter.tryAcquire(username, limit.maxConcurrent());
+        if (inFlight == null) {
+            concurrencyRejected.increment();
+            reject(request, response, 1, "Too many concurrent requests, please wait for previous requests to finish");
+            return;
+        }
+
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            inFlight.decrementAndGet();
+        }
+    }
+
+    private boolean isAdmin(Authentication authentication) {
+        for (GrantedAuthority authority : authentication.getAuthorities()) {
+            if (ROLE_ADMIN.equals(authority.getAuthority())) return true;
+        }
+        return false;
+    }
+
+    private void reject(HttpServletRequest request, HttpServletResponse response, long retryAfterSeconds, String message) throws IOException {
+        response.setContentType("application/json");
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds));
+
+        Map<String, Object> body = new HashMap<>();
+        body.put("error", HttpStatus.TOO_MANY_REQUESTS.getReasonPhrase());
+        body.put("message", message);
+        body.put("timestamp", LocalDateTime.now().format(TIMESTAMP_FORMATTER));
+        body.put("status", HttpStatus.TOO_MANY_REQUESTS.value());
+        body.put("path", request.getServletPath());
+
+        new ObjectMapper().writeValue(response.getOutputStream(), body);
+    }
+
+    private record RoleLimit(TokenBucketRateLimiter rateLimiter, int maxConcurrent, String limitHeader) {
+        RoleLimit(TokenBucketRateLimiter rateLimiter, int maxConcurrent) {
+            this(rateLimiter, maxConcurrent, String.valueOf(rateLimiter.getCapacity()));
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package com.myproject.todo_management.security;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Batas jumlah request yang sedang berjalan bersamaan per key (user), counter atomic dibagi ke beberapa shard
+public class ConcurrencyLimiter {
+
+    private static final int SHARDS = 16;
+
+    private final int maxKeysPerShard;
+
+    private final Map<String, AtomicInteger>[] shards;
+
+    @SuppressWarnings("unchecked")
+    public ConcurrencyLimiter(int maxKeys) {
+        this.maxKeysPerShard = Math.max(1, maxKeys / SHARDS);
+        this.shards = new Map[SHARDS];
+        for (int i = 0; i < SHARDS; i++) {
+            shards[i] = new ConcurrentHashMap<>();
+        }
+    }
+
+    // null kalau sudah melebihi limit, selain itu counter yang harus di-release setelah request selesai
+    public AtomicInteger tryAcquire(String key, int limit) {
+        Map<String, AtomicInteger> shard = shards[(key.hashCode() & 0x7fffffff) % SHARDS];
+
+        if (shard.size() >= maxKeysPerShard && !shard.containsKey(key)) {
+            evictIdle(shard);
+        }
+
+        // increment di dalam compute (lock per key) supaya tidak bisa terselip di antara cek 0 dan remove di evictIdle,
+        // kalau terselip counter yang di-increment sudah tidak ada di map dan request berikutnya dapat counter baru
+        boolean[] acquired = new boolean[1];
+        AtomicInteger inFlight = shard.compute(key, (k, counter) -> {
+            AtomicInteger current = counter == null ? new AtomicInteger() : counter;
+            if (current.incrementAndGet() > limit) {
+                current.decrementAndGet();
+            } else {
+                acquired[0] = true;
+            }
+            return current;
+        });
+
+        return acquired[0] ? inFlight : null;
+    }
+
+    // counter 0 = user sedang tidak punya request aktif, aman dibuang. Cek 0 dan remove dalam satu computeIfPresent.
+    private void evictIdle(Map<String, AtomicInteger> shard) {
+        for (String key : shard.keySet()) {
+            shard.computeIfPresent(key, (k, counter) -> counter.get() == 0 ? null : counter);
+        }
+    }
+}
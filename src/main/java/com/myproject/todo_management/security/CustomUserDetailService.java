@@ -1,17 +1,13 @@
 package com.myproject.todo_management.security;
 
-import com.myproject.todo_management.entity.User;
 import com.myproject.todo_management.respository.UserRepository;
 import lombok.AllArgsConstructor;
-import org.springframework.security.core.GrantedAuthority;
-import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
 
-import java.util.Set;
-import java.util.stream.Collectors;
+import java.util.Optional;
 
 @Service
 @AllArgsConstructor
@@ -19,20 +15,33 @@ public class CustomUserDetailService implements UserDetailsService {
 
     private UserRepository userRepository;
 
+    private UserDetailsCache userDetailsCache;
+
     @Override
     public UserDetails loadUserByUsername(String usernameOrEmail) throws UsernameNotFoundException {
 
-        User user = userRepository.findByUsernameOrEmail(usernameOrEmail, usernameOrEmail).orElseThrow(() -> new UsernameNotFoundException("User not exists by username or Email"));
+        UserDetailsCache.CachedUser user = findUser(usernameOrEmail)
+                .orElseThrow(() -> new UsernameNotFoundException("User not exists by username or Email"));
 
-//      Role dari user (misalnya "ADMIN", "USER") diubah menjadi GrantedAuthority.
+//      Role dari user (misalnya "ADMIN", "USER") sudah diubah menjadi GrantedAuthority saat masuk cache.
 //      Ini agar Spring Security tahu apa saja hak akses user ini.
-        Set<GrantedAuthority> authorities = user.getRoles().stream().map((role) -> new SimpleGrantedAuthority(role.getName()))
-                .collect(Collectors.toSet());
-
         return new org.springframework.security.core.userdetails.User(
                 usernameOrEmail,
-                user.getPassword(),
-                authorities
+                user.password(),
+                user.authorities()
         );
     }
+
+    // Ambil identitas user dari cache, query ke database hanya kalau belum ada / sudah expired
+    public Optional<UserDetailsCache.CachedUser> findUser(String usernameOrEmail) {
+        UserDetailsCache.CachedUser cachedUser = userDetailsCache.get(usernameOrEmail);
+        if (cachedUser != null) {
+            return Optional.of(cachedUser);
+        }
+
+        // stamp diambil sebelum query: kalau user diubah & di-evict selama query, hasil lama tidak masuk cache
+        long stamp = userDetailsCache.stamp();
+        return userRepository.findByUsernameOrEmail(usernameOrEmail, usernameOrEmail)
+                .map(user -> userDetailsCache.put(user, stamp));
+    }
 }
@@ -1,9 +1,11 @@
 package com.myproject.todo_management.security;
 
+import io.jsonwebtoken.Claims;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
@@ -18,13 +20,26 @@ import java.io.IOException;
 @Component
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
+    // claims token yang sudah diverifikasi, untuk controller yang butuh isi token (contoh: id user) tanpa query ke database
+    public static final String CLAIMS_ATTRIBUTE = "jwt.claims";
+
     private JwtTokenProvider jwtTokenProvider;
 
     private UserDetailsService userDetailsService;
 
-    public JwtAuthenticationFilter(JwtTokenProvider jwtTokenProvider, UserDetailsService userDetailsService) {
+    private TokenRevocationRegistry tokenRevocationRegistry;
+
+    // true -> Authentication dibangun dari claims token, tanpa query user ke database
+    private boolean claimsAuthentication;
+
+    public JwtAuthenticationFilter(JwtTokenProvider jwtTokenProvider,
+                                   UserDetailsService userDetailsService,
+                                   TokenRevocationRegistry tokenRevocationRegistry,
+                                   @Value("${app.jwt.authentication-mode:database}") String authenticationMode) {
         this.jwtTokenProvider = jwtTokenProvider;
         this.userDetailsService = userDetailsService;
+        this.tokenRevocationRegistry = tokenRevocationRegistry;
+        this.claimsAuthentication = "claims".equalsIgnoreCase(authenticationMode);
     }
 
     @Override
@@ -33,12 +48,15 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         // GET JWT Token from HTTP Request
         String token = getTokenFromRequest(request);
 
-        // Validate Token
-        if(StringUtils.hasText(token) && jwtTokenProvider.validateToken(token)) {
+        // Validate Token (sekali parse, claims diambil dari cache kalau token sudah pernah diverifikasi)
+        if(StringUtils.hasText(token)) {
            // get username from token
-            String username = jwtTokenProvider.getUsername(token);
+            Claims claims = jwtTokenProvider.getClaims(token);
+            String username = claims.getSubject();
 
-            UserDetails userDetails = userDetailsService.loadUserByUsername(username);
+            UserDetails userDetails = isClaimsTrusted(claims)
+                    ? jwtTokenProvider.getUserDetails(claims)
+                    : userDetailsService.loadUserByUsername(username);
 
             UsernamePasswordAuthenticationToken authenticationToken = new UsernamePasswordAuthenticationToken(
                 userDetails,
@@ -47,6 +65,7 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
             );
 
             authenticationToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
+            request.setAttribute(CLAIMS_ATTRIBUTE, claims);
 
             SecurityContextHolder.getContext().setAuthentication(authenticationToken);
 
@@ -55,6 +74,15 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         filterChain.doFilter(request, response);
     }
 
+    // Claims hanya dipercaya kalau mode claims aktif dan user belum berubah sejak token diterbitkan,
+    // selain itu fallback ke database supaya perubahan role/password langsung berlaku
+    private boolean isClaimsTrusted(Claims claims) {
+        if (!claimsAuthentication || claims.getIssuedAt() == null) return false;
+
+        Long userId = jwtTokenProvider.getUserId(claims);
+        return !tokenRevocationRegistry.isRevoked(userId, claims.getIssuedAt().getTime());
+    }
+
     private String getTokenFromRequest(HttpServletRequest request) {
         String bearerToken = request.getHeader("Authorization");
 
@@ -0,0 +1,120 @@
+package com.myproject.todo_management.security;
+
+import io.jsonwebtoken.Claims;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+@Component
+public class JwtTokenCache {
+
+    // token yang sudah diverifikasi -> claims, supaya request berikutnya tidak parse & cek signature lagi
+    private final Map<String, CachedToken> cache = new ConcurrentHashMap<>();
+
+    private final int maxSize;
+
+    // hanya satu thread yang evict, thread lain langsung lanjut (cache boleh lewat sedikit dari max-size sementara)
+    private final AtomicBoolean evicting = new AtomicBoolean();
+
+    private final Counter hits;
+
+    private final Counter misses;
+
+    public JwtTokenCache(@Value("${app.jwt-cache.max-size:10000}") int maxSize, MeterRegistry meterRegistry) {
+        this.maxSize = maxSize;
+        this.hits = Counter.builder("jwt.token.cache")
+                .tag("result", "hit")
+                .register(meterRegistry);
+        this.misses = Counter.builder("jwt.token.cache")
+                .tag("result", "miss")
+                .register(meterRegistry);
+        Gauge.builder("jwt.token.cache.size", cache, Map::size).register(meterRegistry);
+    }
+
+    public Claims get(String token) {
+        CachedToken cached = cache.get(token);
+
+        if (cached == null) {
+            misses.increment();
+            return null;
+        }
+
+        // token sudah expired -> buang, biar parser yang lempar ExpiredJwtException
+        if (cached.isExpired(System.currentTimeMillis())) {
+            cache.remove(token, cached);
+            misses.increment();
+            return null;
+        }
+
+        cached.lastAccess = System.nanoTime();
+        hits.increment();
+        return cached.claims();
+    }
+
+    public void put(String token, Claims claims) {
+        if (claims.getExpiration() == null) return;
+
+        if (cache.size() >= maxSize && evicting.compareAndSet(false, true)) {
+            try {
+                evict();
+            } finally {
+                evicting.set(false);
+            }
+        }
+
+        cache.put(token, new CachedToken(claims, claims.getExpiration().getTime()));
+    }
+
+    // Hapus yang expired dulu, lalu token yang paling lama tidak dipakai (bukan token sembarang yang mungkin sedang aktif).
+    // Dibuang sampai tersisa 7/8 max-size, jadi scan + sort hanya terjadi sekali per max-size / 8 token baru.
+    private void evict() {
+        long now = System.currentTimeMillis();
+        cache.values().removeIf(cached -> cached.isExpired(now));
+
+        int target = maxSize - Math.max(1, maxSize / 8);
+        int excess = cache.size() - target;
+        if (excess <= 0) return;
+
+        // snapshot waktu akses dulu, nilainya bisa berubah selama sort
+        List<Candidate> oldest = cache.entrySet().stream()
+                .map(entry -> new Candidate(entry.getKey(), entry.getValue(), entry.getValue().lastAccess))
+                .sorted(Comparator.comparingLong(Candidate::lastAccess))
+                .limit(excess)
+                .toList();
+        oldest.forEach(candidate -> cache.remove(candidate.token(), candidate.cached()));
+    }
+
+    private record Candidate(String token, CachedToken cached, long lastAccess) {
+    }
+
+    private static final class CachedToken {
+
+        private final Claims claims;
+
+        private final long expiresAt;
+
+        // System.nanoTime() saat terakhir dipakai, untuk memilih token yang dibuang saat cache penuh
+        private volatile long lastAccess = System.nanoTime();
+
+        CachedToken(Claims claims, long expiresAt) {
+            this.claims = claims;
+            this.expiresAt = expiresAt;
+        }
+
+        Claims claims() {
+            return claims;
+        }
+
+        boolean isExpired(long now) {
+            return now >= expiresAt;
+        }
+    }
+}
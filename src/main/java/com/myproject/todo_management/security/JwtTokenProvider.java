@@ -1,70 +1,123 @@
 package com.myproject.todo_management.security;
 
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.io.Decoders;
 import io.jsonwebtoken.security.Keys;
+import jakarta.annotation.PostConstruct;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Component;
 
 import java.security.Key;
 import java.util.Date;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 @Component
 public class JwtTokenProvider {
 
+    private static final String USER_ID_CLAIM = "uid";
+
+    private static final String ROLES_CLAIM = "roles";
+
     @Value("${app.jwt-secret}")
     private String jwtSecret;
 
     @Value("${app.jwt-expiration-milliseconds}")
     private long jwtExpirationDate;
 
+    private final JwtTokenCache jwtTokenCache;
+
+    // key & parser cukup dibuat sekali saat startup
+    private Key key;
+
+    private JwtParser jwtParser;
+
+    public JwtTokenProvider(JwtTokenCache jwtTokenCache) {
+        this.jwtTokenCache = jwtTokenCache;
+    }
+
+    @PostConstruct
+    void init() {
+        this.key = Keys.hmacShaKeyFor(
+                Decoders.BASE64.decode(jwtSecret)
+        );
+        this.jwtParser = Jwts.parser()
+                .setSigningKey(key)
+                .build();
+    }
+
     // Genarate JWT token
 
-    public String generateToken(Authentication authentication) {
+    public String generateToken(Authentication authentication, Long userId) {
         String username = authentication.getName();
 
         Date currentDate = new Date();
 
         Date expireDate = new Date(currentDate.getTime() + jwtExpirationDate);
 
+        // roles & id user ikut disimpan di token, supaya filter tidak perlu query user lagi
+        List<String> roles = authentication.getAuthorities().stream()
+                .map(GrantedAuthority::getAuthority)
+                .toList();
+
        String token =  Jwts.builder()
                 .setSubject(username)
+                .claim(USER_ID_CLAIM, userId)
+                .claim(ROLES_CLAIM, roles)
                 .setIssuedAt(new Date())
                 .setExpiration(expireDate)
-                .signWith(key())
+                .signWith(key)
                 .compact();
 
        return token;
     }
 
-    private Key key() {
-        return Keys.hmacShaKeyFor(
-                Decoders.BASE64.decode(jwtSecret)
-        );
+    // Parse + verifikasi token, hasilnya di-cache sampai token expired
+    public Claims getClaims(String token) {
+        Claims claims = jwtTokenCache.get(token);
+
+        if (claims == null) {
+            claims = jwtParser.parseClaimsJws(token).getBody();
+            jwtTokenCache.put(token, claims);
+        }
+
+        return claims;
     }
 
-    // Get username from JWT token
-    public String getUsername(String token) {
-        Claims claims = Jwts.parser()
-                .setSigningKey(key())
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
+    public Long getUserId(Claims claims) {
+        return claims.get(USER_ID_CLAIM, Long.class);
+    }
+
+    // Bangun UserDetails langsung dari claims (tanpa query ke database)
+    public UserDetails getUserDetails(Claims claims) {
+        List<?> roles = claims.get(ROLES_CLAIM, List.class);
 
-        String username = claims.getSubject();
+        Set<GrantedAuthority> authorities = roles == null ? Set.of() : roles.stream()
+                .map(role -> new SimpleGrantedAuthority(role.toString()))
+                .collect(Collectors.toSet());
 
-        return username;
+        return new org.springframework.security.core.userdetails.User(
+                claims.getSubject(),
+                "",
+                authorities
+        );
+    }
 
+    // Get username from JWT token
+    public String getUsername(String token) {
+        return getClaims(token).getSubject();
     }
 
     // Validate JWT Token
     public boolean validateToken(String token) {
-        Jwts.parser()
-                .setSigningKey(key())
-                .build()
-                .parse(token);
+        getClaims(token);
         return true;
     }
 }
@@ -0,0 +1,62 @@
+package com.myproject.todo_management.security;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.HashMap;
+import java.util.Map;
+
+// Jalan paling awal (sebelum Spring Security), request login dari IP yang abuse langsung ditolak 429
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class LoginRateLimitFilter extends OncePerRequestFilter {
+
+    private static final DateTimeFormatter TIMESTAMP_FORMATTER =
+            DateTimeFormatter.ofPattern("yyyy:MM:dd HH:mm:ss");
+
+    private final LoginRateLimiter loginRateLimiter;
+
+    public LoginRateLimitFilter(LoginRateLimiter loginRateLimiter) {
+        this.loginRateLimiter = loginRateLimiter;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !("POST".equalsIgnoreCase(request.getMethod())
+                && "/api/auth/login".equals(request.getServletPath()));
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain) throws ServletException, IOException {
+
+        if (loginRateLimiter.tryAcquireIp(request.getRemoteAddr())) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        response.setContentType("application/json");
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(loginRateLimiter.getIpRetryAfterSeconds()));
+
+        Map<String, Object> body = new HashMap<>();
+        body.put("error", HttpStatus.TOO_MANY_REQUESTS.getReasonPhrase());
+        body.put("message", "Too many login attempts, please try again later");
+        body.put("timestamp", LocalDateTime.now().format(TIMESTAMP_FORMATTER));
+        body.put("status", HttpStatus.TOO_MANY_REQUESTS.value());
+        body.put("path", request.getServletPath());
+
+        new ObjectMapper().writeValue(response.getOutputStream(), body);
+    }
+}
@@ -0,0 +1,68 @@
+package com.myproject.todo_management.security;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Locale;
+
+// Batasi percobaan login per IP (setiap request) dan per username (hanya login yang gagal), diambil sebelum query DB / BCrypt
+@Component
+public class LoginRateLimiter {
+
+    private final TokenBucketRateLimiter ipLimiter;
+
+    private final TokenBucketRateLimiter usernameLimiter;
+
+    private final Counter ipRejected;
+
+    private final Counter usernameRejected;
+
+    public LoginRateLimiter(@Value("${app.login-rate-limit.ip.capacity:20}") long ipCapacity,
+                            @Value("${app.login-rate-limit.ip.refill-per-minute:20}") long ipRefillPerMinute,
+                            @Value("${app.login-rate-limit.username.capacity:5}") long usernameCapacity,
+                            @Value("${app.login-rate-limit.username.refill-per-minute:5}") long usernameRefillPerMinute,
+                            @Value("${app.login-rate-limit.max-keys:100000}") int maxKeys,
+                            MeterRegistry meterRegistry) {
+        this.ipLimiter = new TokenBucketRateLimiter(ipCapacity, ipRefillPerMinute, 60_000, maxKeys);
+        this.usernameLimiter = new TokenBucketRateLimiter(usernameCapacity, usernameRefillPerMinute, 60_000, maxKeys);
+        this.ipRejected = Counter.builder("login.rate.limit.rejected")
+                .tag("key", "ip")
+                .register(meterRegistry);
+        this.usernameRejected = Counter.builder("login.rate.limit.rejected")
+                .tag("key", "username")
+                .register(meterRegistry);
+    }
+
+    public boolean tryAcquireIp(String ip) {
+        if (ipLimiter.tryAcquire(ip)) return true;
+
+        ipRejected.increment();
+        return false;
+    }
+
+    // Token username diambil di awal setiap percobaan (sebelum BCrypt), jadi request paralel ke username yang sama
+    // tidak bisa lolos semua sebelum ada yang gagal. Login yang benar mengembalikan token-nya (refundUsername),
+    // jadi hanya login yang gagal yang menghabiskan kuota
+    public boolean tryAcquireUsername(String usernameOrEmail) {
+        if (usernameOrEmail == null) return true;
+        if (usernameLimiter.tryAcquire(usernameOrEmail.toLowerCase(Locale.ROOT))) return true;
+
+        usernameRejected.increment();
+        return false;
+    }
+
+    public void refundUsername(String usernameOrEmail) {
+        if (usernameOrEmail == null) return;
+        usernameLimiter.refund(usernameOrEmail.toLowerCase(Locale.ROOT));
+    }
+
+    public long getIpRetryAfterSeconds() {
+        return ipLimiter.getRetryAfterSeconds();
+    }
+
+    public long getUsernameRetryAfterSeconds() {
+        return usernameLimiter.getRetryAfterSeconds();
+    }
+}
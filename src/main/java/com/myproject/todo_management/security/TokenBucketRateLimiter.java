@@ -0,0 +1,149 @@
+package com.myproject.todo_management.security;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReference;
+
+// Token bucket per key (IP, username, dll) tanpa lock: state bucket di-update pakai CAS.
+// Key dibagi ke beberapa shard, masing-masing shard dibatasi jumlah entry-nya supaya memori tetap terbatas.
+public class TokenBucketRateLimiter {
+
+    private static final int SHARDS = 16;
+
+    private final long capacity;
+
+    // jumlah nano detik untuk mengisi 1 token
+    private final double nanosPerToken;
+
+    private final int maxKeysPerShard;
+
+    private final Map<String, Bucket>[] shards;
+
+    @SuppressWarnings("unchecked")
+    public TokenBucketRateLimiter(long capacity, long refillTokens, long refillPeriodMillis, int maxKeys) {
+        this.capacity = capacity;
+        this.nanosPerToken = refillPeriodMillis * 1_000_000.0 / refillTokens;
+        this.maxKeysPerShard = Math.max(1, maxKeys / SHARDS);
+        this.shards = new Map[SHARDS];
+        for (int i = 0; i < SHARDS; i++) {
+            shards[i] = new ConcurrentHashMap<>();
+        }
+    }
+
+    // true kalau masih ada token (request boleh lanjut)
+    public boolean tryAcquire(String key) {
+        return tryConsume(key) >= 0;
+    }
+
+    // sisa token setelah request ini diambil, -1 kalau ditolak (untuk header RateLimit-Remaining)
+    public long tryConsume(String key) {
+        Map<String, Bucket> shard = shardFor(key);
+
+        Bucket bucket = shard.get(key);
+        if (bucket == null) {
+            if (shard.size() >= maxKeysPerShard) {
+                evict(shard);
+            }
+            bucket = shard.computeIfAbsent(key, k -> new Bucket(capacity));
+        }
+
+        return bucket.tryConsume(System.nanoTime());
+    }
+
+    // kembalikan 1 token yang diambil tryConsume (maksimal sampai capacity), bucket yang sudah dibuang = sudah penuh
+    public void refund(String key) {
+        Bucket bucket = shardFor(key).get(key);
+        if (bucket != null) {
+            bucket.refund(System.nanoTime());
+        }
+    }
+
+    // berapa detik lagi sampai 1 token tersedia (untuk header Retry-After)
+    public long getRetryAfterSeconds() {
+        return Math.max(1, (long) Math.ceil(nanosPerToken / 1_000_000_000.0));
+    }
+
+    public long getCapacity() {
+        return capacity;
+    }
+
+    // perkiraan detik sampai bucket penuh lagi (untuk header RateLimit-Reset)
+    public long getResetSeconds(long remaining) {
+        return (long) Math.ceil((capacity - remaining) * nanosPerToken / 1_000_000_000.0);
+    }
+
+    private Map<String, Bucket> shardFor(String key) {
+        return shards[(key.hashCode() & 0x7fffffff) % SHARDS];
+    }
+
+    // Bucket yang sudah penuh lagi sama saja dengan bucket baru, jadi aman dibuang.
+    // Kalau shard masih penuh, buang bucket yang paling lama tidak dipakai (refill paling lama = token paling banyak),
+    // bukan bucket sembarang: membanjiri key baru tidak bisa me-reset bucket yang baru saja habis.
+    // Dibuang 1/8 shard sekaligus supaya sort tidak terjadi di setiap key baru.
+    private void evict(Map<String, Bucket> shard) {
+        long now = System.nanoTime();
+        shard.values().removeIf(bucket -> bucket.isFull(now));
+        if (shard.size() < maxKeysPerShard) return;
+
+        // snapshot waktu refill dulu, nilainya bisa berubah selama sort
+        List<Candidate> oldest = shard.entrySet().stream()
+                .map(entry -> new Candidate(entry.getKey(), entry.getValue(), entry.getValue().lastRefillNanos()))
+                .sorted(Comparator.comparingLong(Candidate::lastRefillNanos))
+                .limit(Math.max(1, maxKeysPerShard / 8))
+                .toList();
+        oldest.forEach(candidate -> shard.remove(candidate.key(), candidate.bucket()));
+    }
+
+    private record Candidate(String key, Bucket bucket, long lastRefillNanos) {
+    }
+
+    private record State(double tokens, long lastRefillNanos) {
+    }
+
+    private final class Bucket {
+
+        private final AtomicReference<State> state;
+
+        Bucket(long capacity) {
+            this.state = new AtomicReference<>(new State(capacity, System.nanoTime()));
+        }
+
+        long tryConsume(long now) {
+            while (true) {
+                State current = state.get();
+                double tokens = refill(current, now);
+                if (tokens < 1) {
+                    return -1;
+                }
+                if (state.compareAndSet(current, new State(tokens - 1, now))) {
+                    return (long) (tokens - 1);
+                }
+            }
+        }
+
+        void refund(long now) {
+            while (true) {
+                State current = state.get();
+                double tokens = Math.min(capacity, refill(current, now) + 1);
+                if (state.compareAndSet(current, new State(tokens, now))) {
+                    return;
+                }
+            }
+        }
+
+        boolean isFull(long now) {
+            return refill(state.get(), now) >= capacity;
+        }
+
+        long lastRefillNanos() {
+            return state.get().lastRefillNanos();
+        }
+
+        private double refill(State current, long now) {
+            double refilled = (now - current.lastRefillNanos()) / nanosPerToken;
+            return Math.min(capacity, current.tokens() + refilled);
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package com.myproject.todo_management.security;
+
+import com.myproject.todo_management.utils.AfterCommit;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+@Component
+public class TokenRevocationRegistry {
+
+    // userId -> waktu (millis) terakhir data user/role/password berubah
+    private final Map<Long, Long> revokedAt = new ConcurrentHashMap<>();
+
+    private final long jwtExpirationDate;
+
+    // dipanggil dengan userId setiap kali token user di-revoke (mis. menutup koneksi SSE user tsb)
+    private final List<Consumer<Long>> listeners = new CopyOnWriteArrayList<>();
+
+    public TokenRevocationRegistry(@Value("${app.jwt-expiration-milliseconds}") long jwtExpirationDate) {
+        this.jwtExpirationDate = jwtExpirationDate;
+    }
+
+    // Revoke setelah transaksi commit: perubahan yang di-rollback tidak ikut me-revoke token,
+    // dan token dari login sebelum commit (role/password lama) tetap ikut ter-revoke
+    public void revokeAfterCommit(Long userId) {
+        AfterCommit.run(() -> revoke(userId));
+    }
+
+    // Dipanggil saat profile, role atau password user berubah / user dihapus
+    public void revoke(Long userId) {
+        if (userId == null) return;
+
+        long now = System.currentTimeMillis();
+        revokedAt.put(userId, now);
+
+        // token yang diterbitkan sebelum (now - expiration) pasti sudah expired, entry lama tidak perlu disimpan
+        revokedAt.values().removeIf(time -> time < now - jwtExpirationDate);
+
+        listeners.forEach(listener -> listener.accept(userId));
+    }
+
+    public void addListener(Consumer<Long> listener) {
+        listeners.add(listener);
+    }
+
+    // Token dianggap revoked kalau diterbitkan sebelum perubahan terakhir user tersebut
+    public boolean isRevoked(Long userId, long issuedAt) {
+        if (userId == null) return true;
+
+        Long time = revokedAt.get(userId);
+        return time != null && issuedAt <= time;
+    }
+}
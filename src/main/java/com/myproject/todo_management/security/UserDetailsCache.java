@@ -0,0 +1,217 @@
+package com.myproject.todo_management.security;
+
+import com.myproject.todo_management.entity.User;
+import com.myproject.todo_management.utils.AfterCommit;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.stereotype.Component;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+// Cache identitas user untuk autentikasi, di-evict setelah user diubah / dihapus.
+// Evict menyimpan tombstone dengan versi baru. Load dari database mengambil stamp() sebelum query,
+// put() menolak hasil query kalau salah satu key-nya sudah di-evict setelah stamp itu (data lama).
+@Component
+public class UserDetailsCache {
+
+    // key = username / email (lowercase), value = identitas + authorities user atau tombstone
+    private final Map<String, CacheEntry> cache = new ConcurrentHashMap<>();
+
+    // sumber versi tombstone, naik terus (tidak pernah dipakai ulang)
+    private final AtomicLong versions = new AtomicLong();
+
+    private final AtomicBoolean evicting = new AtomicBoolean();
+
+    private final int maxSize;
+
+    private final long ttlMillis;
+
+    private final Counter hits;
+
+    private final Counter misses;
+
+    public UserDetailsCache(@Value("${app.user-cache.max-size:10000}") int maxSize,
+                            @Value("${app.user-cache.ttl-seconds:300}") long ttlSeconds,
+                            MeterRegistry meterRegistry) {
+        this.maxSize = maxSize;
+        this.ttlMillis = ttlSeconds * 1000;
+        this.hits = Counter.builder("user.details.cache")
+                .tag("result", "hit")
+                .register(meterRegistry);
+        this.misses = Counter.builder("user.details.cache")
+                .tag("result", "miss")
+                .register(meterRegistry);
+        Gauge.builder("user.details.cache.size", cache, Map::size).register(meterRegistry);
+        Gauge.builder("user.details.cache.hit.ratio", this, UserDetailsCache::hitRatio).register(meterRegistry);
+    }
+
+    public CachedUser get(String usernameOrEmail) {
+        String key = normalize(usernameOrEmail);
+        CacheEntry entry = key == null ? null : cache.get(key);
+
+        if (entry == null || entry.user() == null) {
+            misses.increment();
+            return null;
+        }
+
+        if (entry.isExpired(System.currentTimeMillis())) {
+            cache.remove(key, entry);
+            misses.increment();
+            return null;
+        }
+
+        entry.lastAccess = System.nanoTime();
+        hits.increment();
+        return entry.user();
+    }
+
+    // ambil sebelum query ke database, lalu kirim ke put()
+    public long stamp() {
+        return versions.get();
+    }
+
+    // Hasil query tetap dikembalikan ke pemanggil, tapi hanya disimpan kalau username & email
+    // tidak di-evict setelah stamp. Cek versi dan simpan dalam satu compute per key.
+    public CachedUser put(User user, long stamp) {
+        Set<GrantedAuthority> authorities = user.getRoles().stream()
+                .map(role -> new SimpleGrantedAuthority(role.getName()))
+                .collect(Collectors.toSet());
+
+        CachedUser cachedUser = new CachedUser(
+                user.getId(),
+                user.getUsername(),
+                user.getEmail(),
+                user.getPassword(),
+                Set.copyOf(authorities)
+        );
+
+        String username = normalize(user.getUsername());
+        String email = normalize(user.getEmail());
+        if (isEvictedAfter(username, stamp) || isEvictedAfter(email, stamp)) {
+            return cachedUser;
+        }
+
+        evictIfFull();
+
+        CacheEntry entry = new CacheEntry(cachedUser, stamp, System.currentTimeMillis() + ttlMillis);
+        cache.compute(username, (k, current) -> current != null && current.version() > stamp ? current : entry);
+        cache.compute(email, (k, current) -> current != null && current.version() > stamp ? current : entry);
+
+        return cachedUser;
+    }
+
+    // Hapus cache setelah transaksi commit, supaya request lain tidak mengisi ulang data lama
+    public void evictAfterCommit(String... usernamesOrEmails) {
+        AfterCommit.run(() -> evict(usernamesOrEmails));
+    }
+
+    // tombstone (user = null) menggantikan entry lama, load yang mulai sebelum ini akan ditolak put()
+    public void evict(String... usernamesOrEmails) {
+        evictIfFull();
+
+        long expiresAt = System.currentTimeMillis() + ttlMillis;
+        for (String usernameOrEmail : usernamesOrEmails) {
+            String key = normalize(usernameOrEmail);
+            if (key != null) cache.put(key, new CacheEntry(null, versions.incrementAndGet(), expiresAt));
+        }
+    }
+
+    public double hitRatio() {
+        double total = hits.count() + misses.count();
+        return total == 0 ? 0 : hits.count() / total;
+    }
+
+    private boolean isEvictedAfter(String key, long stamp) {
+        CacheEntry current = key == null ? null : cache.get(key);
+        return current != null && current.version() > stamp;
+    }
+
+    private void evictIfFull() {
+        if (cache.size() >= maxSize && evicting.compareAndSet(false, true)) {
+            try {
+                evict();
+            } finally {
+                evicting.set(false);
+            }
+        }
+    }
+
+    // Entry yang sudah expired dibuang dulu, lalu user yang paling lama tidak dipakai sampai tersisa 7/8 max-size,
+    // jadi scan + sort tidak terjadi di setiap put. Tombstone yang belum expired tidak dibuang:
+    // tanpa tombstone hasil query dari sebelum evict bisa masuk lagi.
+    private void evict() {
+        long now = System.currentTimeMillis();
+        cache.values().removeIf(entry -> entry.isExpired(now));
+
+        int target = maxSize - Math.max(1, maxSize / 8);
+        if (cache.size() <= target) return;
+
+        // satu entry dipakai oleh dua key (username & email), snapshot waktu akses per entry
+        List<Candidate> oldest = cache.values().stream()
+                .filter(entry -> entry.user() != null)
+                .distinct()
+                .map(entry -> new Candidate(entry, entry.lastAccess))
+                .sorted(Comparator.comparingLong(Candidate::lastAccess))
+                .toList();
+        for (Candidate candidate : oldest) {
+            if (cache.size() <= target) break;
+            CachedUser user = candidate.entry().user();
+            cache.remove(normalize(user.username()), candidate.entry());
+            cache.remove(normalize(user.email()), candidate.entry());
+        }
+    }
+
+    // username/email di MySQL case-insensitive, jadi key cache juga dibuat lowercase
+    private String normalize(String usernameOrEmail) {
+        return usernameOrEmail == null ? null : usernameOrEmail.toLowerCase(Locale.ROOT);
+    }
+
+    public record CachedUser(Long id, String username, String email, String password,
+                             Set<GrantedAuthority> authorities) {
+    }
+
+    private record Candidate(CacheEntry entry, long lastAccess) {
+    }
+
+    // user = null -> tombstone (baru di-evict)
+    private static final class CacheEntry {
+
+        private final CachedUser user;
+
+        private final long version;
+
+        private final long expiresAt;
+
+        private volatile long lastAccess = System.nanoTime();
+
+        CacheEntry(CachedUser user, long version, long expiresAt) {
+            this.user = user;
+            this.version = version;
+            this.expiresAt = expiresAt;
+        }
+
+        CachedUser user() {
+            return user;
+        }
+
+        long version() {
+            return version;
+        }
+
+        boolean isExpired(long now) {
+            return now >= expiresAt;
+        }
+    }
+}
@@ -10,7 +10,7 @@ import java.util.List;
 public interface AuthService {
     String register(RegisterDto registerDto, MultipartFile photo) throws IOException;
 
-    String updateRegister(Long userId, UpdateRegisterDto updateRegisterDto, MultipartFile photo) throws IOException;
+    String updateRegister(Long userId, UpdateRegisterDto updateRegisterDto, MultipartFile photo, Long expectedVersion) throws IOException;
 
     String deleteRegister(Long userId) throws IOException;
 
@@ -18,6 +18,8 @@ public interface AuthService {
 
     PagedResponse<RegisterDto> getAllRegister(Pageable pageable);
 
+    CursorPagedResponse<RegisterDto> getAllRegisterByCursor(String cursor, int size, boolean includeTotal);
+
     RegisterDto  getUserById(Long id);
 
     RegisterDto getUserByUsernameOrEmail(String usernameOrEmail);
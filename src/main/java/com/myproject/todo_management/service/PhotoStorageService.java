@@ -0,0 +1,26 @@
+package com.myproject.todo_management.service;
+
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.util.Map;
+
+public interface PhotoStorageService {
+
+    // Tulis upload ke file sementara, dipanggil sebelum transaksi DB (koneksi tidak ditahan selama tulis ke disk)
+    String savePhoto(MultipartFile photo) throws IOException;
+
+    // Dipanggil di dalam transaksi: commit -> file sementara jadi file final, rollback -> file sementara dibuang
+    void commitPhotoAfterTransaction(String photoPath);
+
+    // Buang file sementara kalau transaksi gagal sebelum commitPhotoAfterTransaction terdaftar
+    void discardPhoto(String photoPath);
+
+    void deletePhoto(String photoPath);
+
+    // URL thumbnail, contoh: /uploads/photos/abc.jpg -> /uploads/photos/abc_64.jpg
+    String getThumbnailPath(String photoPath, int size);
+
+    // URL thumbnail untuk semua ukuran yang dibuat (app.photo.thumbnail-sizes), kosong kalau tidak ada foto
+    Map<Integer, String> getThumbnailPaths(String photoPath);
+}
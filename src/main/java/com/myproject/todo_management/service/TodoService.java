@@ -1,7 +1,14 @@
 package com.myproject.todo_management.service;
 
+import com.myproject.todo_management.dto.CursorPagedResponse;
 import com.myproject.todo_management.dto.PagedResponse;
+import com.myproject.todo_management.dto.TodoBulkOperationDto;
+import com.myproject.todo_management.dto.TodoBulkResultDto;
+import com.myproject.todo_management.dto.TodoBulkUpdateResponse;
 import com.myproject.todo_management.dto.TodoDto;
+import com.myproject.todo_management.dto.TodoFilter;
+import com.myproject.todo_management.dto.TodoStatsDto;
+import com.myproject.todo_management.dto.TodoSyncResponse;
 import org.springframework.data.domain.Pageable;
 
 import java.util.List;
@@ -12,14 +19,28 @@ public interface TodoService {
 
     TodoDto getTodo(Long id);
 
-    PagedResponse<TodoDto> getAllTodos(Pageable pageable);
+    PagedResponse<TodoDto> getAllTodos(TodoFilter filter, String sort, String direction, Pageable pageable);
 
-    TodoDto updateTodo(TodoDto todoDto, Long id);
+    CursorPagedResponse<TodoDto> getAllTodosByCursor(String cursor, int size, boolean includeTotal);
+
+    TodoSyncResponse syncTodos(String since, int size);
+
+    List<TodoDto> searchTodos(String query, int size);
+
+    TodoStatsDto getTodoStats();
+
+    TodoStatsDto getGlobalTodoStats();
+
+    TodoDto updateTodo(TodoDto todoDto, Long id, Long expectedVersion);
 
     void deleteTodo(Long id);
 
-    TodoDto completedTodo(Long id);
+    TodoDto completedTodo(Long id, Long expectedVersion);
+
+    TodoDto inCompleteTodo(Long id, Long expectedVersion);
+
+    List<TodoBulkResultDto> bulkTodos(List<TodoBulkOperationDto> operations);
 
-    TodoDto inCompleteTodo(Long id);
+    TodoBulkUpdateResponse markTodos(List<Long> ids, boolean completed);
 
 }
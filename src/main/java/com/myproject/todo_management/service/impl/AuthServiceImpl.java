@@ -2,34 +2,48 @@ package com.myproject.todo_management.service.impl;
 
 import com.myproject.todo_management.dto.*;
 import com.myproject.todo_management.entity.Role;
+import com.myproject.todo_management.entity.TodoTombstone;
 import com.myproject.todo_management.entity.User;
+import com.myproject.todo_management.event.TodoEvent;
+import com.myproject.todo_management.event.TodoEventBus;
+import com.myproject.todo_management.exception.RateLimitExceededException;
 import com.myproject.todo_management.exception.TodoAPIException;
+import com.myproject.todo_management.mapper.UserMapper;
 import com.myproject.todo_management.respository.RoleRepository;
 import com.myproject.todo_management.respository.TodoRepository;
+import com.myproject.todo_management.respository.TodoTombstoneRepository;
 import com.myproject.todo_management.respository.UserRepository;
+import com.myproject.todo_management.search.TodoSearchIndex;
+import com.myproject.todo_management.security.CustomUserDetailService;
 import com.myproject.todo_management.security.JwtTokenProvider;
+import com.myproject.todo_management.security.LoginRateLimiter;
+import com.myproject.todo_management.security.TokenRevocationRegistry;
+import com.myproject.todo_management.security.UserDetailsCache;
 import com.myproject.todo_management.service.AuthService;
-import jakarta.transaction.Transactional;
+import com.myproject.todo_management.service.PhotoStorageService;
+import com.myproject.todo_management.stats.PageCountCache;
+import com.myproject.todo_management.stats.TodoCounters;
+import com.myproject.todo_management.utils.CursorCodec;
 import lombok.AllArgsConstructor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.http.HttpStatus;
-import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.multipart.MultipartFile;
-import org.modelmapper.ModelMapper;
 
-import java.io.File;
 import java.io.IOException;
-import java.nio.file.Files;
-import java.nio.file.Path;
-import java.nio.file.Paths;
 import java.time.LocalDateTime;
 import java.util.*;
 import java.util.stream.Collectors;
@@ -38,30 +52,51 @@ import java.util.stream.Collectors;
 @AllArgsConstructor
 public class AuthServiceImpl implements AuthService {
 
-    private ModelMapper modelMapper;
     private UserRepository userRepository;
     private TodoRepository todoRepository;
+    private TodoTombstoneRepository todoTombstoneRepository;
     private RoleRepository roleRepository;
     private PasswordEncoder passwordEncoder;
-    private AuthenticationManager authenticationManager;
     private JwtTokenProvider jwtTokenProvider;
+    private TokenRevocationRegistry tokenRevocationRegistry;
+    private CustomUserDetailService userDetailService;
+    private UserDetailsCache userDetailsCache;
+    private PhotoStorageService photoStorageService;
+    private LoginRateLimiter loginRateLimiter;
+    private TodoSearchIndex todoSearchIndex;
+    private TodoEventBus todoEventBus;
+    private TodoCounters todoCounters;
+    private PageCountCache pageCountCache;
+    private TransactionTemplate transactionTemplate;
+    private static final int CURSOR_MAX_SIZE = 1000;
     private static final Logger logger = LoggerFactory.getLogger(AuthServiceImpl.class);
 
-    // tempat penyimpanan foto
-    private final String UPLOAD_DIR = "uploads/photos/";
-
     @Override
+    @Transactional(readOnly = true)
     public PagedResponse<RegisterDto> getAllRegister(Pageable pageable) {
 
-        Page<User> users = userRepository.findAll(pageable);
+        // total sudah diketahui: cukup ambil isi halaman (Slice), tanpa SELECT COUNT(*)
+        Long total = pageCountCache.get(PageCountCache.ALL_USERS);
+        if (total != null) {
+            Slice<RegisterDto> slice = userRepository.findAllRegisterDtoSlice(pageable);
+            slice.getContent().forEach(this::addThumbnails);
+            return new PagedResponse<>(
+                    slice.getContent(),
+                    slice.getNumber(),
+                    slice.getSize(),
+                    total,
+                    (int) Math.ceil((double) total / slice.getSize())
+            );
+        }
 
-        List<RegisterDto> content = users.getContent()
-                .stream()
-                .map(user -> modelMapper.map(user, RegisterDto.class))
-                .toList();
+        // projection ke RegisterDto, roles tidak ikut di-load (tidak ada N+1)
+        long stamp = pageCountCache.stamp(PageCountCache.ALL_USERS);
+        Page<RegisterDto> users = userRepository.findAllRegisterDto(pageable);
+        pageCountCache.put(PageCountCache.ALL_USERS, users.getTotalElements(), stamp);
+        users.getContent().forEach(this::addThumbnails);
 
         return new PagedResponse<>(
-                content,
+                users.getContent(),
                 users.getNumber(),
                 users.getSize(),
                 users.getTotalElements(),
@@ -69,6 +104,28 @@ public class AuthServiceImpl implements AuthService {
         );
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPagedResponse<RegisterDto> getAllRegisterByCursor(String cursor, int size, boolean includeTotal) {
+        if (size < 1 || size > CURSOR_MAX_SIZE) {
+            throw new TodoAPIException(HttpStatus.BAD_REQUEST, "Size must be between 1 and " + CURSOR_MAX_SIZE);
+        }
+
+        long afterId = CursorCodec.decode(cursor);
+
+        // ambil size + 1 untuk tahu masih ada halaman berikutnya atau tidak
+        List<RegisterDto> users = userRepository.findAllRegisterDtoAfter(afterId, Limit.of(size + 1));
+
+        boolean hasNext = users.size() > size;
+        List<RegisterDto> content = hasNext ? users.subList(0, size) : users;
+        content.forEach(this::addThumbnails);
+        String nextCursor = hasNext ? CursorCodec.encode(content.get(content.size() - 1).getId()) : null;
+
+        Long totalElements = includeTotal ? userRepository.count() : null;
+
+        return new CursorPagedResponse<>(content, size, nextCursor, hasNext, totalElements);
+    }
+
     @Override
     public RegisterDto getUserById(Long id)  {
 
@@ -79,17 +136,17 @@ public class AuthServiceImpl implements AuthService {
         boolean isAdmin = authentication.getAuthorities().stream()
                 .anyMatch(auth -> auth.getAuthority().equals("ROLE_ADMIN"));
 
-        User currentUser = userRepository.findByUsernameOrEmail(currentUsername, currentUsername)
+        UserDetailsCache.CachedUser currentUser = userDetailService.findUser(currentUsername)
                 .orElseThrow(() -> new TodoAPIException(HttpStatus.NOT_FOUND, "User not found"));
 
         // Jika bukan admin, pastikan hanya update dirinya sendiri
-        if (!isAdmin && !currentUser.getId().equals(id)) {
+        if (!isAdmin && !currentUser.id().equals(id)) {
             throw new TodoAPIException(HttpStatus.FORBIDDEN, "You are not allowed to view other user's data");
         }
 
         User user = userRepository.findById(id)
                 .orElseThrow(() -> new TodoAPIException(HttpStatus.NOT_FOUND, "User not found with id " + id));
-        return modelMapper.map(user, RegisterDto.class);
+        return addThumbnails(UserMapper.mapToRegisterDto(user));
     }
 
     @Override
@@ -102,7 +159,7 @@ public class AuthServiceImpl implements AuthService {
         boolean isAdmin = authentication.getAuthorities().stream()
                 .anyMatch(auth -> auth.getAuthority().equals("ROLE_ADMIN"));
 
-        User currentUser = userRepository.findByUsernameOrEmail(currentUsername, currentUsername)
+        UserDetailsCache.CachedUser currentUser = userDetailService.findUser(currentUsername)
                 .orElseThrow(() -> new TodoAPIException(HttpStatus.NOT_FOUND, "User not found"));
 
         // Jika bukan admin, pastikan hanya update dirinya sendiri
@@ -113,11 +170,12 @@ public class AuthServiceImpl implements AuthService {
 
         User user = userRepository.findByUsernameOrEmail(usernameOrEmail, usernameOrEmail)
                 .orElseThrow(() -> new TodoAPIException(HttpStatus.NOT_FOUND, "User not found with username or email " + usernameOrEmail));
-        return modelMapper.map(user, RegisterDto.class);
+        return addThumbnails(UserMapper.mapToRegisterDto(user));
     }
 
+    // Tidak @Transactional: BCrypt (matches + encode) dijalankan tanpa menahan koneksi DB selama antre di
+    // BoundedPasswordEncoder. Password diganti request lain di antara baca dan simpan -> version beda -> 412.
     @Override
-    @Transactional
     public String updatePassword(UpdatePasswordDto dto, String username) {
 
         User user = userRepository.findByUsernameOrEmail(username, username)
@@ -147,71 +205,17 @@ public class AuthServiceImpl implements AuthService {
         user.setUpdatedAt(LocalDateTime.now());
         user.setUpdatedBy(username);
 
-        userRepository.save(user);
+        transactionTemplate.executeWithoutResult(status -> {
+            userRepository.save(user);
+            tokenRevocationRegistry.revokeAfterCommit(user.getId());
+            userDetailsCache.evictAfterCommit(user.getUsername(), user.getEmail());
+        });
 
         return "Password updated successfully";
     }
 
-    private String savePhoto(MultipartFile photo) throws IOException {
-        if (photo == null || photo.isEmpty()) return null;
-
-        String contentType = photo.getContentType();
-        if (contentType == null ||
-                !(contentType.equalsIgnoreCase("image/jpeg") ||
-                        contentType.equalsIgnoreCase("image/jpg") ||
-                        contentType.equalsIgnoreCase("image/png"))) {
-            throw new TodoAPIException(HttpStatus.BAD_REQUEST, "Hanya file JPG/PNG yang diperbolehkan");
-        }
-
-        if (photo.getSize() > 2 * 1024 * 1024) {
-            throw new TodoAPIException(HttpStatus.BAD_REQUEST, "Ukuran file maksimum adalah 2MB");
-        }
-
-        File uploadDir = new File(UPLOAD_DIR);
-        if (!uploadDir.exists()) uploadDir.mkdirs();
-
-
-        String extension = contentType.equals("image/png") ? ".png" : ".jpg";
-        String fileName = UUID.randomUUID() + extension;
-
-        Path filePath = Paths.get(UPLOAD_DIR).resolve(fileName);
-        Files.write(filePath, photo.getBytes());
-
-        return "/uploads/photos/" + fileName; // gunakan path yang bisa diakses via browser
-
-//        String extension = contentType.contains("png") ? ".png" : ".jpg";
-//        String fileName = UUID.randomUUID() + extension;
-//
-//        Path filePath = Paths.get(UPLOAD_DIR, fileName);
-//        Files.write(filePath, photo.getBytes());
-//
-//        return "/uploads/photos/" + fileName;
-    }
-
-    private void deletePhoto(String photoPath) {
-        if (photoPath != null && !photoPath.isEmpty()) {
-            try {
-                // photoPath contoh: "/uploads/photos/abc.jpg"
-                String fileName = Paths.get(photoPath).getFileName().toString();
-                File file = Paths.get(UPLOAD_DIR, fileName).toFile();
-
-                if (file.exists()) {
-                    if (file.delete()) {
-                        logger.info("Photo deleted: {}", file.getAbsolutePath());
-                    } else {
-                        logger.warn("Failed to delete photo: {}", file.getAbsolutePath());
-                    }
-                } else {
-                    logger.debug("Photo file not found: {}", file.getAbsolutePath());
-                }
-            } catch (Exception ex) {
-                logger.error("Error while deleting photo: {}", photoPath, ex);
-            }
-        }
-    }
-
+    // Tidak @Transactional: foto ditulis ke disk sebelum transaksi, transaksi (transactionTemplate) hanya untuk query & simpan
     @Override
-    @Transactional
     public String register(RegisterDto registerDto, MultipartFile photo) throws IOException {
 
         // check username is already exist in database
@@ -225,20 +229,11 @@ public class AuthServiceImpl implements AuthService {
         }
 
         // Mapping DTO ke Entity
-        User user = modelMapper.map(registerDto, User.class);
+        User user = UserMapper.mapToUser(registerDto);
 
-        String photoPath = savePhoto(photo);
+        String photoPath = photoStorageService.savePhoto(photo);
 
-//        User user = new User();
-        user.setName(registerDto.getName());
-        user.setUsername(registerDto.getUsername());
-        user.setEmail(registerDto.getEmail());
         user.setPassword(passwordEncoder.encode(registerDto.getPassword()));
-
-        // Set field tambahan
-        user.setBirthDate(registerDto.getBirthDate());
-        user.setJobTitle(registerDto.getJobTitle());
-        user.setLocation(registerDto.getLocation());
         user.setProfilePhoto(photoPath);
 
         // Timestamp otomatis
@@ -247,20 +242,29 @@ public class AuthServiceImpl implements AuthService {
         user.setUpdatedAt(now);
         user.setCreatedBy(registerDto.getUsername());
 
-
-        Set<Role> roles = new HashSet<>();
-        Role userRole = roleRepository.findByName("ROLE_USER");
-        roles.add(userRole);
-        user.setRoles(roles);
-        userRepository.save(user);
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                photoStorageService.commitPhotoAfterTransaction(photoPath);
+
+                Set<Role> roles = new HashSet<>();
+                Role userRole = roleRepository.findByName("ROLE_USER");
+                roles.add(userRole);
+                user.setRoles(roles);
+                userRepository.save(user);
+                pageCountCache.invalidateAfterCommit(PageCountCache.ALL_USERS);
+            });
+        } catch (RuntimeException ex) {
+            photoStorageService.discardPhoto(photoPath);
+            throw ex;
+        }
 
         return "User Registered Successfully";
     }
 
 
+    // Tidak @Transactional: foto ditulis ke disk sebelum transaksi, transaksi (transactionTemplate) hanya untuk query & simpan
     @Override
-    @Transactional
-    public String updateRegister(Long userId, UpdateRegisterDto updateRegisterDto, MultipartFile photo) throws IOException {
+    public String updateRegister(Long userId, UpdateRegisterDto updateRegisterDto, MultipartFile photo, Long expectedVersion) throws IOException {
 
         // ambil username yang sedang login
         Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
@@ -269,17 +273,40 @@ public class AuthServiceImpl implements AuthService {
         boolean isAdmin = authentication.getAuthorities().stream()
                 .anyMatch(auth -> auth.getAuthority().equals("ROLE_ADMIN"));
 
-        User currentUser = userRepository.findByUsernameOrEmail(currentUsername, currentUsername)
+        UserDetailsCache.CachedUser currentUser = userDetailService.findUser(currentUsername)
                 .orElseThrow(() -> new TodoAPIException(HttpStatus.NOT_FOUND, "User not found"));
 
         // Jika bukan admin, pastikan hanya update dirinya sendiri
-        if (!isAdmin && !currentUser.getId().equals(userId)) {
+        if (!isAdmin && !currentUser.id().equals(userId)) {
             throw new TodoAPIException(HttpStatus.FORBIDDEN, "You are not allowed to update other user's data");
         }
 
+        //simpan foto baru (file sementara)
+        String newPhotoPath = photoStorageService.savePhoto(photo);
+
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                photoStorageService.commitPhotoAfterTransaction(newPhotoPath);
+                saveUpdateRegister(userId, updateRegisterDto, newPhotoPath, expectedVersion);
+            });
+        } catch (RuntimeException ex) {
+            photoStorageService.discardPhoto(newPhotoPath);
+            throw ex;
+        }
+
+        return "User updated successfully";
+    }
+
+    private void saveUpdateRegister(Long userId, UpdateRegisterDto updateRegisterDto, String newPhotoPath, Long expectedVersion) {
         User user = userRepository.findById(userId)
                 .orElseThrow(() -> new TodoAPIException(HttpStatus.NOT_FOUND, "User not found"));
 
+        // If-Match: data user sudah diubah request lain sejak client terakhir ambil
+        if (expectedVersion != null && !expectedVersion.equals(user.getVersion())) {
+            throw new TodoAPIException(HttpStatus.PRECONDITION_FAILED,
+                    "User has been modified by another request, please reload it");
+        }
+
         // Cek duplikasi username (pastikan bukan user yang sedang update)
         Optional<User> existingByUsername = userRepository.findByUsername(updateRegisterDto.getUsername());
         if (existingByUsername.isPresent() && !existingByUsername.get().getId().equals(user.getId())) {
@@ -292,6 +319,10 @@ public class AuthServiceImpl implements AuthService {
             throw new TodoAPIException(HttpStatus.BAD_REQUEST, "Email already taken");
         }
 
+        // simpan username/email lama untuk hapus cache setelah commit
+        String oldUsername = user.getUsername();
+        String oldEmail = user.getEmail();
+
         user.setName(updateRegisterDto.getName());
         user.setUsername(updateRegisterDto.getUsername());
         user.setEmail(updateRegisterDto.getEmail());
@@ -302,18 +333,15 @@ public class AuthServiceImpl implements AuthService {
         user.setUpdatedBy(updateRegisterDto.getUsername());
 
 //        if(photo != null && !photo.isEmpty()) {
-            //simpan foto baru
-            String newPhotoPath = savePhoto(photo);
-
             //hapus foto lama
-            deletePhoto(user.getProfilePhoto());
+            photoStorageService.deletePhoto(user.getProfilePhoto());
 
             user.setProfilePhoto(newPhotoPath);
 //        }
 
         userRepository.save(user);
-
-        return "User updated successfully";
+        tokenRevocationRegistry.revokeAfterCommit(user.getId());
+        userDetailsCache.evictAfterCommit(oldUsername, oldEmail, user.getUsername(), user.getEmail());
     }
 
     @Override
@@ -322,16 +350,45 @@ public class AuthServiceImpl implements AuthService {
         User user = userRepository.findById(userId)
                 .orElseThrow(() -> new TodoAPIException(HttpStatus.NOT_FOUND, "User not found"));
 
+        // todo user di-lock dulu, tombstone-nya dibuat di akhir (setelah DELETE)
+        List<TodoVersionDto> todos = todoRepository.findByUserIdForUpdate(userId);
+
+        if (todoEventBus.hasSubscribers()) {
+            todoEventBus.publishAllAfterCommit(TodoEvent.Type.DELETED,
+                    todos.stream().map(TodoVersionDto::getId).toList(), user.getUsername());
+        }
+
         todoRepository.deleteByUserId(userId);
+        todoSearchIndex.removeOwnerAfterCommit(user.getUsername());
+        todoCounters.removeOwnerAfterCommit(user.getUsername());
+        pageCountCache.invalidateAfterCommit(PageCountCache.userTodos(user.getUsername()),
+                PageCountCache.ALL_TODOS, PageCountCache.ALL_USERS);
 
         // hapus foto dari folder
-        deletePhoto(user.getProfilePhoto());
+        photoStorageService.deletePhoto(user.getProfilePhoto());
         userRepository.delete(user);
+        tokenRevocationRegistry.revokeAfterCommit(userId);
+        userDetailsCache.evictAfterCommit(user.getUsername(), user.getEmail());
+
+        // Tombstone (transaksi yang sama) supaya client delta sync ikut menghapus todo user ini.
+        // DELETE yang lama dijalankan dulu, deleted_at diambil setelahnya supaya sedekat mungkin dengan commit
+        // (delta sync hanya menunggu SYNC_COMMIT_LAG untuk transaksi yang belum commit)
+        userRepository.flush();
+        LocalDateTime deletedAt = LocalDateTime.now();
+        todoTombstoneRepository.saveAll(todos.stream()
+                .map(todo -> new TodoTombstone(todo.getId(), todo.getCreatedBy(), deletedAt))
+                .toList());
         return "User deleted successfully";
     }
 
     @Override
     public JwtAuthResponse login(LoginDto loginDto) {
+        // brute force per username: token diambil sebelum query DB dan BCrypt, dikembalikan kalau password benar
+        if (!loginRateLimiter.tryAcquireUsername(loginDto.getUsernameOrEmail())) {
+            throw new RateLimitExceededException("Too many login attempts, please try again later",
+                    loginRateLimiter.getUsernameRetryAfterSeconds());
+        }
+
         Optional<User> userOptional = userRepository.findByUsernameOrEmail(
                 loginDto.getUsernameOrEmail(),
                 loginDto.getUsernameOrEmail()
@@ -347,22 +404,32 @@ public class AuthServiceImpl implements AuthService {
             throw new TodoAPIException(HttpStatus.UNAUTHORIZED, "Incorrect username or password");
         }
 
-        Authentication authentication = authenticationManager.authenticate(
-                new UsernamePasswordAuthenticationToken(
-                        loginDto.getUsernameOrEmail(),
-                        loginDto.getPassword()
-                )
+        loginRateLimiter.refundUsername(loginDto.getUsernameOrEmail());
+
+        // Password sudah diverifikasi di atas, tidak perlu authenticationManager (BCrypt kedua kali)
+        Set<GrantedAuthority> authorities = user.getRoles().stream()
+                .map(userRole -> new SimpleGrantedAuthority(userRole.getName()))
+                .collect(Collectors.toSet());
+
+        Authentication authentication = new UsernamePasswordAuthenticationToken(
+                loginDto.getUsernameOrEmail(),
+                null,
+                authorities
         );
 
         SecurityContextHolder.getContext().setAuthentication(authentication);
 
-        String token = jwtTokenProvider.generateToken(authentication);
+        String token = jwtTokenProvider.generateToken(authentication, user.getId());
 
 
-        // Saat login, update updatedAt dan updatedBy otomatis
-        user.setUpdatedAt(LocalDateTime.now());
-        user.setUpdatedBy(authentication.getName()); // ambil username user yang login
-        userRepository.save(user);
+        // Hash lama (cost BCrypt beda dengan hasil kalibrasi / tanpa prefix) di-rehash sekali saat login sukses
+        if (passwordEncoder.upgradeEncoding(user.getPassword())
+                && userRepository.rehashPassword(user.getId(), user.getPassword(), passwordEncoder.encode(loginDto.getPassword())) > 0) {
+            userDetailsCache.evict(user.getUsername(), user.getEmail());
+        }
+
+        // Saat login, update updatedAt dan updatedBy otomatis (UPDATE langsung, version / ETag tidak berubah)
+        userRepository.updateLoginAudit(user.getId(), authentication.getName(), LocalDateTime.now());
 
         // Ambil role
         String role = user.getRoles().stream()
@@ -378,4 +445,9 @@ public class AuthServiceImpl implements AuthService {
         return jwtAuthResponse;
 
     }
+
+    private RegisterDto addThumbnails(RegisterDto registerDto) {
+        registerDto.setProfilePhotoThumbnails(photoStorageService.getThumbnailPaths(registerDto.getProfilePhoto()));
+        return registerDto;
+    }
 }
@@ -0,0 +1,294 @@
+package com.myproject.todo_management.service.impl;
+
+import com.myproject.todo_management.event.PhotoDeletedEvent;
+import com.myproject.todo_management.exception.TodoAPIException;
+import com.myproject.todo_management.service.PhotoStorageService;
+import com.myproject.todo_management.utils.AfterCommit;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
+
+import javax.imageio.ImageIO;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.*;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+@Service
+public class PhotoStorageServiceImpl implements PhotoStorageService {
+
+    private static final Logger logger = LoggerFactory.getLogger(PhotoStorageServiceImpl.class);
+
+    // tempat penyimpanan foto
+    private static final String UPLOAD_DIR = "uploads/photos/";
+
+    // file upload yang belum di-commit (transaksi DB belum selesai)
+    private static final String TEMP_SUFFIX = ".part";
+
+    private static final long MAX_PHOTO_SIZE = 2 * 1024 * 1024;
+
+    // file .part yang lebih tua dari ini dianggap sisa (crash / rollback yang gagal dibersihkan)
+    private static final Duration ORPHAN_AGE = Duration.ofHours(1);
+
+    private final ThreadPoolTaskExecutor photoStorageExecutor;
+
+    private final ThreadPoolTaskExecutor photoThumbnailExecutor;
+
+    // ukuran thumbnail (px, persegi) yang dibuat untuk setiap foto
+    private final List<Integer> thumbnailSizes;
+
+    private final ApplicationEventPublisher eventPublisher;
+
+    public PhotoStorageServiceImpl(@Qualifier("photoStorageExecutor") ThreadPoolTaskExecutor photoStorageExecutor,
+                                   @Qualifier("photoThumbnailExecutor") ThreadPoolTaskExecutor photoThumbnailExecutor,
+                                   @Value("${app.photo.thumbnail-sizes:64,256}") List<Integer> thumbnailSizes,
+                                   ApplicationEventPublisher eventPublisher) {
+        this.photoStorageExecutor = photoStorageExecutor;
+        this.photoThumbnailExecutor = photoThumbnailExecutor;
+        this.thumbnailSizes = thumbnailSizes;
+        this.eventPublisher = eventPublisher;
+    }
+
+    @Override
+    public String savePhoto(MultipartFile photo) throws IOException {
+        if (photo == null || photo.isEmpty()) return null;
+
+        String contentType = photo.getContentType();
+        if (contentType == null ||
+                !(contentType.equalsIgnoreCase("image/jpeg") ||
+                        contentType.equalsIgnoreCase("image/jpg") ||
+                        contentType.equalsIgnoreCase("image/png"))) {
+            throw new TodoAPIException(HttpStatus.BAD_REQUEST, "Hanya file JPG/PNG yang diperbolehkan");
+        }
+
+        if (photo.getSize() > MAX_PHOTO_SIZE) {
+            throw new TodoAPIException(HttpStatus.BAD_REQUEST, "Ukuran file maksimum adalah 2MB");
+        }
+
+        Path uploadDir = Paths.get(UPLOAD_DIR);
+        Files.createDirectories(uploadDir);
+
+        String extension = contentType.equalsIgnoreCase("image/png") ? ".png" : ".jpg";
+        String fileName = UUID.randomUUID() + extension;
+
+        Path filePath = uploadDir.resolve(fileName);
+        Path tempPath = tempFile(filePath);
+
+        // stream ke file sementara lewat channel, tidak buffer seluruh file di heap
+        try (ReadableByteChannel in = Channels.newChannel(photo.getInputStream());
+             FileChannel out = FileChannel.open(tempPath, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE)) {
+            long position = 0;
+            long transferred;
+            while ((transferred = out.transferFrom(in, position, MAX_PHOTO_SIZE)) > 0) {
+                position += transferred;
+            }
+        } catch (IOException ex) {
+            Files.deleteIfExists(tempPath);
+            throw ex;
+        }
+
+        return "/uploads/photos/" + fileName; // gunakan path yang bisa diakses via browser
+    }
+
+    @Override
+    public void commitPhotoAfterTransaction(String photoPath) {
+        if (photoPath == null || photoPath.isEmpty()) return;
+
+        Path filePath = Paths.get(UPLOAD_DIR, Paths.get(photoPath).getFileName().toString());
+        Path tempPath = tempFile(filePath);
+
+        // file baru dipindah ke nama final setelah transaksi DB commit, kalau rollback dibuang
+        AfterCommit.onCompletion(
+                () -> commitPhoto(tempPath, filePath),
+                () -> photoStorageExecutor.execute(() -> deleteFile(tempPath))
+        );
+    }
+
+    @Override
+    public void discardPhoto(String photoPath) {
+        if (photoPath == null || photoPath.isEmpty()) return;
+
+        deleteFile(tempFile(Paths.get(UPLOAD_DIR, Paths.get(photoPath).getFileName().toString())));
+    }
+
+    @Override
+    public void deletePhoto(String photoPath) {
+        if (photoPath == null || photoPath.isEmpty()) return;
+
+        // photoPath contoh: "/uploads/photos/abc.jpg"
+        Path file = Paths.get(UPLOAD_DIR, Paths.get(photoPath).getFileName().toString());
+
+        // hapus hanya kalau transaksi DB sukses (beserta thumbnail-nya), dikerjakan di background
+        AfterCommit.run(() -> photoStorageExecutor.execute(() -> {
+            List<String> fileNames = new ArrayList<>();
+            fileNames.add(file.getFileName().toString());
+            deleteFile(file);
+            thumbnailSizes.forEach(size -> {
+                Path thumbnail = thumbnailFile(file, size);
+                fileNames.add(thumbnail.getFileName().toString());
+                deleteFile(thumbnail);
+            });
+
+            // setelah file terhapus, metadata yang sudah di-cache PhotoController ikut dibuang
+            eventPublisher.publishEvent(new PhotoDeletedEvent(fileNames));
+        }));
+    }
+
+    @Override
+    public String getThumbnailPath(String photoPath, int size) {
+        if (photoPath == null || photoPath.isEmpty()) return null;
+
+        int dot = photoPath.lastIndexOf('.');
+        return photoPath.substring(0, dot) + "_" + size + photoPath.substring(dot);
+    }
+
+    @Override
+    public Map<Integer, String> getThumbnailPaths(String photoPath) {
+        Map<Integer, String> thumbnails = new LinkedHashMap<>();
+        if (photoPath == null || photoPath.isEmpty()) return thumbnails;
+
+        thumbnailSizes.forEach(size -> thumbnails.put(size, getThumbnailPath(photoPath, size)));
+        return thumbnails;
+    }
+
+    // Bersihkan file .part yang tertinggal
+    @Scheduled(fixedDelayString = "${app.photo.orphan-cleanup-interval-ms:600000}")
+    public void cleanupOrphanPhotos() {
+        Path uploadDir = Paths.get(UPLOAD_DIR);
+        if (!Files.isDirectory(uploadDir)) return;
+
+        FileTime threshold = FileTime.from(Instant.now().minus(ORPHAN_AGE));
+
+        try (Stream<Path> files = Files.list(uploadDir)) {
+            files.filter(file -> file.getFileName().toString().endsWith(TEMP_SUFFIX))
+                    .filter(file -> isOlderThan(file, threshold))
+                    .forEach(this::deleteFile);
+        } catch (IOException ex) {
+            logger.error("Error while cleaning up orphan photos", ex);
+        }
+    }
+
+    private void commitPhoto(Path tempPath, Path filePath) {
+        try {
+            Files.move(tempPath, filePath, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException ex) {
+            logger.error("Failed to commit photo: {}", filePath.toAbsolutePath(), ex);
+            return;
+        }
+
+        // thumbnail dibuat di background, request tidak menunggu
+        try {
+            photoThumbnailExecutor.execute(() -> createThumbnails(filePath));
+        } catch (TaskRejectedException ex) {
+            logger.warn("Thumbnail queue is full, skipping thumbnails for {}", filePath.toAbsolutePath());
+        }
+    }
+
+    // deletePhoto jalan di executor lain, bisa selesai sebelum / selama thumbnail dibuat:
+    // foto yang sudah dihapus dilewati, dan thumbnail yang terlanjur ditulis dihapus lagi
+    private void createThumbnails(Path filePath) {
+        try {
+            if (!Files.exists(filePath)) return;
+
+            BufferedImage original = ImageIO.read(filePath.toFile());
+            if (original == null) {
+                logger.warn("Unsupported image, skipping thumbnails: {}", filePath.toAbsolutePath());
+                return;
+            }
+
+            boolean png = filePath.getFileName().toString().endsWith(".png");
+            for (int size : thumbnailSizes) {
+                BufferedImage thumbnail = resizeSquare(original, size, png);
+                writeThumbnail(thumbnail, png ? "png" : "jpg", thumbnailFile(filePath, size));
+            }
+        } catch (IOException ex) {
+            logger.error("Failed to create thumbnails for {}", filePath.toAbsolutePath(), ex);
+        }
+
+        if (!Files.exists(filePath)) {
+            thumbnailSizes.forEach(size -> deleteFile(thumbnailFile(filePath, size)));
+        }
+    }
+
+    // tulis ke file .part dulu lalu dipindah atomic, request yang datang saat proses tulis
+    // tidak pernah dapat thumbnail yang terpotong (yang lalu di-cache immutable oleh browser / CDN)
+    private void writeThumbnail(BufferedImage thumbnail, String format, Path target) throws IOException {
+        Path tempPath = tempFile(target);
+        try {
+            if (!ImageIO.write(thumbnail, format, tempPath.toFile())) {
+                throw new IOException("No image writer for format " + format);
+            }
+            Files.move(tempPath, target, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(tempPath);
+        }
+    }
+
+    // crop bagian tengah jadi persegi lalu resize ke size x size
+    private BufferedImage resizeSquare(BufferedImage original, int size, boolean keepAlpha) {
+        int side = Math.min(original.getWidth(), original.getHeight());
+        int x = (original.getWidth() - side) / 2;
+        int y = (original.getHeight() - side) / 2;
+
+        BufferedImage thumbnail = new BufferedImage(size, size,
+                keepAlpha ? BufferedImage.TYPE_INT_ARGB : BufferedImage.TYPE_INT_RGB);
+        Graphics2D graphics = thumbnail.createGraphics();
+        try {
+            graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            graphics.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            graphics.drawImage(original, 0, 0, size, size, x, y, x + side, y + side, null);
+        } finally {
+            graphics.dispose();
+        }
+        return thumbnail;
+    }
+
+    private Path tempFile(Path filePath) {
+        return filePath.resolveSibling(filePath.getFileName() + TEMP_SUFFIX);
+    }
+
+    private Path thumbnailFile(Path filePath, int size) {
+        return filePath.resolveSibling(getThumbnailPath(filePath.getFileName().toString(), size));
+    }
+
+    private void deleteFile(Path file) {
+        try {
+            if (Files.deleteIfExists(file)) {
+                logger.info("Photo deleted: {}", file.toAbsolutePath());
+            } else {
+                logger.debug("Photo file not found: {}", file.toAbsolutePath());
+            }
+        } catch (IOException ex) {
+            logger.error("Error while deleting photo: {}", file.toAbsolutePath(), ex);
+        }
+    }
+
+    private boolean isOlderThan(Path file, FileTime threshold) {
+        try {
+            return Files.getLastModifiedTime(file).compareTo(threshold) < 0;
+        } catch (IOException ex) {
+            return false;
+        }
+    }
+}
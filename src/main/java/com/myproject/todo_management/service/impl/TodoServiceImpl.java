@@ -1,36 +1,95 @@
 package com.myproject.todo_management.service.impl;
 
+import com.myproject.todo_management.dto.CursorPagedResponse;
 import com.myproject.todo_management.dto.PagedResponse;
+import com.myproject.todo_management.dto.TodoBulkOperationDto;
+import com.myproject.todo_management.dto.TodoBulkResultDto;
+import com.myproject.todo_management.dto.TodoBulkUpdateResponse;
 import com.myproject.todo_management.dto.TodoDto;
+import com.myproject.todo_management.dto.TodoFilter;
+import com.myproject.todo_management.dto.TodoStatsDto;
+import com.myproject.todo_management.dto.TodoSyncResponse;
+import com.myproject.todo_management.dto.TodoVersionDto;
 import com.myproject.todo_management.entity.Todo;
+import com.myproject.todo_management.entity.TodoTombstone;
+import com.myproject.todo_management.event.TodoEvent;
+import com.myproject.todo_management.event.TodoEventBus;
 import com.myproject.todo_management.entity.User;
 import com.myproject.todo_management.exception.ResourceNotFoundException;
 import com.myproject.todo_management.exception.TodoAPIException;
+import com.myproject.todo_management.mapper.TodoMapper;
 import com.myproject.todo_management.respository.TodoRepository;
+import com.myproject.todo_management.respository.TodoSpecifications;
+import com.myproject.todo_management.respository.TodoTombstoneRepository;
 import com.myproject.todo_management.respository.UserRepository;
+import com.myproject.todo_management.search.TodoSearchIndex;
 import com.myproject.todo_management.service.TodoService;
+import com.myproject.todo_management.stats.PageCountCache;
+import com.myproject.todo_management.stats.TodoCounters;
+import com.myproject.todo_management.utils.CursorCodec;
+import com.myproject.todo_management.utils.SyncWatermark;
 import lombok.AllArgsConstructor;
-import org.modelmapper.ModelMapper;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
 import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.util.StringUtils;
 
-import java.util.List;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.*;
 import java.util.stream.Collectors;
 
 @Service
 @AllArgsConstructor
 public class TodoServiceImpl implements TodoService {
 
-    private TodoRepository todoRepository;
+    // batas jumlah operasi dalam satu request bulk
+    private static final int BULK_MAX_SIZE = 500;
+
+    private static final int CURSOR_MAX_SIZE = 1000;
+
+    private static final int SYNC_MAX_SIZE = 1000;
+
+    private static final int SEARCH_MAX_SIZE = 100;
+
+    // kolom yang boleh dipakai sort, hanya yang punya index: (created_by, <kolom>) untuk USER,
+    // (<kolom>, id) untuk ADMIN (migration V7)
+    private static final Map<String, String> SORTABLE_COLUMNS = Map.of(
+            "id", "id",
+            "time_created", "timeCreated",
+            "time_updated", "timeUpdated"
+    );
 
-    private ModelMapper modelMapper;
+    // Perubahan dalam jendela ini belum dikirim: transaksi yang belum commit bisa punya time_updated lebih awal.
+    // Karena itu time_updated / deleted_at di-stamp sedekat mungkin dengan commit (setelah lock & flush).
+    private static final Duration SYNC_COMMIT_LAG = Duration.ofSeconds(2);
+
+    // watermark lebih tua dari ini harus full sync ulang (tombstone sudah dibersihkan)
+    private static final Duration TOMBSTONE_RETENTION = Duration.ofDays(30);
+
+    private TodoRepository todoRepository;
 
     private UserRepository userRepository;
 
+    private TodoTombstoneRepository todoTombstoneRepository;
+
+    private TodoEventBus todoEventBus;
+
+    private TodoSearchIndex todoSearchIndex;
+
+    private TodoCounters todoCounters;
+
+    private PageCountCache pageCountCache;
+
     //  Helper untuk ambil data user yang sedang login
     private Authentication getAuthentication() {
         return SecurityContextHolder.getContext().getAuthentication();
@@ -60,6 +119,14 @@ public class TodoServiceImpl implements TodoService {
         return todo;
     }
 
+    // If-Match: tolak kalau client mengubah dari versi lama (412), null = tanpa cek
+    private void checkVersion(Todo todo, Long expectedVersion) {
+        if (expectedVersion != null && !expectedVersion.equals(todo.getVersion())) {
+            throw new TodoAPIException(HttpStatus.PRECONDITION_FAILED,
+                    "Todo has been modified by another request, please reload it");
+        }
+    }
+
     @Override
     public TodoDto addTodo(TodoDto todoDto) {
         // Ambil user yang sedang login
@@ -75,7 +142,7 @@ public class TodoServiceImpl implements TodoService {
         }
 
         // Map TodoDto ke Todo entity
-        Todo todo = modelMapper.map(todoDto, Todo.class);
+        Todo todo = TodoMapper.mapToTodo(todoDto);
 
         todo.setUser(user); // set user ke todo
         todo.setCreatedBy(username); // siapa yang buat
@@ -84,30 +151,56 @@ public class TodoServiceImpl implements TodoService {
         Todo savedTodo = todoRepository.save(todo);
 
         // Mapping kembali ke DTO untuk response
-        return modelMapper.map(savedTodo, TodoDto.class);
+        TodoDto savedTodoDto = TodoMapper.mapToTodoDto(savedTodo);
+        publish(TodoEvent.Type.CREATED, savedTodo, savedTodoDto);
+        todoCounters.addAfterCommit(username, 1, savedTodo.isCompleted() ? 1 : 0);
+        pageCountCache.invalidateAfterCommit(PageCountCache.userTodos(username), PageCountCache.ALL_TODOS);
+        return savedTodoDto;
     }
 
     @Override
     public TodoDto getTodo(Long id) {
         Todo todo = getTodoWithAccessCheck(id, "view");
-        return modelMapper.map(todo, TodoDto.class);
+        return TodoMapper.mapToTodoDto(todo);
     }
 
     @Override
-    public PagedResponse<TodoDto> getAllTodos(Pageable pageable) {
+    @Transactional(readOnly = true)
+    public PagedResponse<TodoDto> getAllTodos(TodoFilter filter, String sort, String direction, Pageable pageable) {
         String currentUsername = getCurrentUsername();
+        boolean admin = isAdmin();
 
-        Page<Todo> todos = isAdmin()
-                ? todoRepository.findAll(pageable)
-                : todoRepository.findByCreatedBy(currentUsername, pageable);
-
-        List<TodoDto> content = todos.getContent()
-                .stream()
-                .map(todo -> modelMapper.map(todo, TodoDto.class))
-                .toList();
+        // direction tanpa sort (mis. ?direction=desc) berarti sort berdasarkan id, bukan diabaikan
+        boolean unsorted = sort == null && "asc".equalsIgnoreCase(direction);
+
+        Page<TodoDto> todos;
+        if (filter.isEmpty() && unsorted) {
+            String countKey = admin ? PageCountCache.ALL_TODOS : PageCountCache.userTodos(currentUsername);
+
+            // total sudah diketahui: cukup ambil isi halaman (Slice), tanpa SELECT COUNT(*)
+            Long total = pageCountCache.get(countKey);
+            if (total != null) {
+                Slice<TodoDto> slice = admin
+                        ? todoRepository.findAllTodoDtoSlice(pageable)
+                        : todoRepository.findTodoDtoSliceByCreatedBy(currentUsername, pageable);
+                return toPagedResponse(slice, total);
+            }
+
+            // langsung select ke DTO, tidak ada entity yang perlu di dirty-check
+            long stamp = pageCountCache.stamp(countKey);
+            todos = admin
+                    ? todoRepository.findAllTodoDto(pageable)
+                    : todoRepository.findTodoDtoByCreatedBy(currentUsername, pageable);
+            pageCountCache.put(countKey, todos.getTotalElements(), stamp);
+        } else {
+            // filter & sort dikerjakan database (WHERE + ORDER BY + LIMIT), bukan di client
+            Pageable sortedPageable = PageRequest.of(pageable.getPageNumber(), pageable.getPageSize(), toSort(sort, direction));
+            todos = todoRepository.findAll(TodoSpecifications.matching(admin ? null : currentUsername, filter), sortedPageable)
+                    .map(TodoMapper::mapToTodoDto);
+        }
 
         return new PagedResponse<>(
-                content,
+                todos.getContent(),
                 todos.getNumber(),
                 todos.getSize(),
                 todos.getTotalElements(),
@@ -116,8 +209,135 @@ public class TodoServiceImpl implements TodoService {
     }
 
     @Override
-    public TodoDto updateTodo(TodoDto todoDto, Long id) {
+    @Transactional(readOnly = true)
+    public CursorPagedResponse<TodoDto> getAllTodosByCursor(String cursor, int size, boolean includeTotal) {
+        if (size < 1 || size > CURSOR_MAX_SIZE) {
+            throw new TodoAPIException(HttpStatus.BAD_REQUEST, "Size must be between 1 and " + CURSOR_MAX_SIZE);
+        }
+
+        String currentUsername = getCurrentUsername();
+        boolean admin = isAdmin();
+        long afterId = CursorCodec.decode(cursor);
+
+        // ambil size + 1 untuk tahu masih ada halaman berikutnya atau tidak
+        List<TodoDto> todos = admin
+                ? todoRepository.findAllTodoDtoAfter(afterId, Limit.of(size + 1))
+                : todoRepository.findTodoDtoByCreatedByAfter(currentUsername, afterId, Limit.of(size + 1));
+
+        boolean hasNext = todos.size() > size;
+        List<TodoDto> content = hasNext ? todos.subList(0, size) : todos;
+        String nextCursor = hasNext ? CursorCodec.encode(content.get(content.size() - 1).getId()) : null;
+
+        Long totalElements = null;
+        if (includeTotal) {
+            totalElements = admin ? todoRepository.count() : todoRepository.countByCreatedBy(currentUsername);
+        }
+
+        return new CursorPagedResponse<>(content, size, nextCursor, hasNext, totalElements);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public TodoSyncResponse syncTodos(String since, int size) {
+        if (size < 1 || size > SYNC_MAX_SIZE) {
+            throw new TodoAPIException(HttpStatus.BAD_REQUEST, "Size must be between 1 and " + SYNC_MAX_SIZE);
+        }
+
+        String currentUsername = getCurrentUsername();
+        boolean admin = isAdmin();
+        SyncWatermark watermark = SyncWatermark.decode(since);
+        LocalDateTime now = LocalDateTime.now();
+
+        if (!watermark.isInitial() && watermark.time().isBefore(now.minus(TOMBSTONE_RETENTION))) {
+            throw new TodoAPIException(HttpStatus.GONE, "Watermark is too old, please do a full sync");
+        }
+
+        // ambil size + 1 untuk tahu masih ada perubahan berikutnya atau tidak
+        LocalDateTime until = now.minus(SYNC_COMMIT_LAG);
+        List<Todo> todos = admin
+                ? todoRepository.findChanged(watermark.time(), watermark.id(), until, Limit.of(size + 1))
+                : todoRepository.findChangedByCreatedBy(currentUsername, watermark.time(), watermark.id(), until, Limit.of(size + 1));
+
+        boolean hasMore = todos.size() > size;
+        List<Todo> changed = hasMore ? todos.subList(0, size) : todos;
+
+        // Halaman terpotong: lanjut dari todo terakhir. Halaman terakhir: semua perubahan sampai "until" sudah terkirim.
+        SyncWatermark next;
+        if (hasMore) {
+            Todo last = changed.get(changed.size() - 1);
+            next = new SyncWatermark(last.getTimeUpdated(), last.getId());
+        } else {
+            next = new SyncWatermark(until, Long.MAX_VALUE);
+        }
+
+        // client baru (full sync) belum punya todo apa pun untuk dihapus
+        List<Long> deleted = List.of();
+        if (!watermark.isInitial() && next.time().isAfter(watermark.time())) {
+            deleted = admin
+                    ? todoTombstoneRepository.findTodoIdsDeletedBetween(watermark.time(), next.time())
+                    : todoTombstoneRepository.findTodoIdsByCreatedByDeletedBetween(currentUsername, watermark.time(), next.time());
+        }
+
+        // Tidak ada perubahan: watermark tidak digeser, jadi ETag sama dan client dapat 304.
+        // Kecuali kalau sudah mendekati batas retensi, supaya client yang jarang berubah tidak kena 410.
+        if (changed.isEmpty() && deleted.isEmpty() && !watermark.isInitial()
+                && watermark.time().isAfter(now.minus(TOMBSTONE_RETENTION.dividedBy(2)))) {
+            next = watermark;
+        }
+
+        List<TodoDto> content = changed.stream()
+                .map(TodoMapper::mapToTodoDto)
+                .toList();
+
+        return new TodoSyncResponse(content, deleted, next.encode(), hasMore);
+    }
+
+    @Override
+    public List<TodoDto> searchTodos(String query, int size) {
+        if (!StringUtils.hasText(query)) {
+            throw new TodoAPIException(HttpStatus.BAD_REQUEST, "Query cannot be empty");
+        }
+        if (size < 1 || size > SEARCH_MAX_SIZE) {
+            throw new TodoAPIException(HttpStatus.BAD_REQUEST, "Size must be between 1 and " + SEARCH_MAX_SIZE);
+        }
+        if (!todoSearchIndex.isReady()) {
+            throw new TodoAPIException(HttpStatus.SERVICE_UNAVAILABLE, "Search index is still being built, please try again later");
+        }
+
+        // dari index in-memory, tidak ada query LIKE ke database
+        return todoSearchIndex.search(isAdmin() ? null : getCurrentUsername(), query, size);
+    }
+
+    @Override
+    public TodoStatsDto getTodoStats() {
+        String currentUsername = getCurrentUsername();
+
+        // counter belum siap (reconcile pertama belum selesai) -> hitung langsung dari database
+        if (!todoCounters.isReady()) {
+            long total = todoRepository.countByCreatedBy(currentUsername);
+            long completed = todoRepository.countByCreatedByAndCompleted(currentUsername, true);
+            return new TodoStatsDto(total, completed, total - completed);
+        }
+
+        return todoCounters.get(currentUsername);
+    }
+
+    @Override
+    public TodoStatsDto getGlobalTodoStats() {
+        if (!todoCounters.isReady()) {
+            long total = todoRepository.count();
+            long completed = todoRepository.countByCompleted(true);
+            return new TodoStatsDto(total, completed, total - completed);
+        }
+
+        return todoCounters.getGlobal();
+    }
+
+    @Override
+    public TodoDto updateTodo(TodoDto todoDto, Long id, Long expectedVersion) {
         Todo todo = getTodoWithAccessCheck(id, "update");
+        checkVersion(todo, expectedVersion);
+        boolean wasCompleted = todo.isCompleted();
 
         // update fields
        todo.setTitle(todoDto.getTitle());
@@ -126,32 +346,332 @@ public class TodoServiceImpl implements TodoService {
        todo.setUpdatedBy(getCurrentUsername()); // siapa yang terakhir update
 
        Todo updatedTodo = todoRepository.save(todo);
-        return modelMapper.map(updatedTodo, TodoDto.class);
+        TodoDto updatedTodoDto = TodoMapper.mapToTodoDto(updatedTodo);
+        publish(TodoEvent.Type.UPDATED, updatedTodo, updatedTodoDto);
+        todoCounters.addAfterCommit(updatedTodo.getCreatedBy(), 0, completedDelta(wasCompleted, updatedTodo.isCompleted()));
+        return updatedTodoDto;
     }
 
     @Override
+    @Transactional
     public void deleteTodo(Long id) {
 
         Todo todo = getTodoWithAccessCheck(id, "delete");
         todoRepository.delete(todo);
+        // DELETE dijalankan dulu, tombstone di-stamp sesudahnya (sedekat mungkin dengan commit)
+        todoRepository.flush();
+        todoTombstoneRepository.save(toTombstone(todo));
+        publish(TodoEvent.Type.DELETED, todo, null);
+        todoCounters.addAfterCommit(todo.getCreatedBy(), -1, todo.isCompleted() ? -1 : 0);
+        pageCountCache.invalidateAfterCommit(PageCountCache.userTodos(todo.getCreatedBy()), PageCountCache.ALL_TODOS);
 
     }
 
     @Override
-    public TodoDto completedTodo(Long id) {
+    public TodoDto completedTodo(Long id, Long expectedVersion) {
         Todo todo = getTodoWithAccessCheck(id, "completed");
+        checkVersion(todo, expectedVersion);
+        boolean wasCompleted = todo.isCompleted();
 
         todo.setCompleted(Boolean.TRUE);
         todo.setUpdatedBy(getCurrentUsername());
 
-        return modelMapper.map(todoRepository.save(todo), TodoDto.class);
+        Todo updatedTodo = todoRepository.save(todo);
+        TodoDto updatedTodoDto = TodoMapper.mapToTodoDto(updatedTodo);
+        publish(TodoEvent.Type.COMPLETED, updatedTodo, updatedTodoDto);
+        todoCounters.addAfterCommit(updatedTodo.getCreatedBy(), 0, completedDelta(wasCompleted, true));
+        return updatedTodoDto;
     }
 
     @Override
-    public TodoDto inCompleteTodo(Long id) {
+    public TodoDto inCompleteTodo(Long id, Long expectedVersion) {
         Todo todo = getTodoWithAccessCheck(id, "incompleted");
+        checkVersion(todo, expectedVersion);
+        boolean wasCompleted = todo.isCompleted();
         todo.setCompleted(Boolean.FALSE);
         todo.setUpdatedBy(getCurrentUsername());
-        return modelMapper.map(todoRepository.save(todo), TodoDto.class);
+
+        Todo updatedTodo = todoRepository.save(todo);
+        TodoDto updatedTodoDto = TodoMapper.mapToTodoDto(updatedTodo);
+        publish(TodoEvent.Type.INCOMPLETED, updatedTodo, updatedTodoDto);
+        todoCounters.addAfterCommit(updatedTodo.getCreatedBy(), 0, completedDelta(wasCompleted, false));
+        return updatedTodoDto;
+    }
+
+    @Override
+    @Transactional
+    public List<TodoBulkResultDto> bulkTodos(List<TodoBulkOperationDto> operations) {
+        if (operations == null || operations.isEmpty()) {
+            throw new TodoAPIException(HttpStatus.BAD_REQUEST, "Operations cannot be empty");
+        }
+        if (operations.size() > BULK_MAX_SIZE) {
+            throw new TodoAPIException(HttpStatus.BAD_REQUEST, "Maximum " + BULK_MAX_SIZE + " operations per request");
+        }
+
+        String currentUsername = getCurrentUsername();
+        boolean admin = isAdmin();
+        TodoBulkResultDto[] results = new TodoBulkResultDto[operations.size()];
+
+        // Satu query untuk semua todo yang direferensikan (UPDATE, COMPLETE, INCOMPLETE, DELETE)
+        Set<Long> ids = operations.stream()
+                .filter(op -> op.getOperation() != TodoBulkOperationDto.Operation.CREATE && op.getId() != null)
+                .map(TodoBulkOperationDto::getId)
+                .collect(Collectors.toSet());
+        Map<Long, Todo> todos = new HashMap<>();
+        if (!ids.isEmpty()) {
+            todoRepository.findAllById(ids).forEach(todo -> todos.put(todo.getId(), todo));
+        }
+
+        // Satu query untuk cek title yang sudah dipakai (MySQL case-insensitive, jadi dibandingkan lowercase)
+        List<String> createTitles = operations.stream()
+                .filter(op -> op.getOperation() == TodoBulkOperationDto.Operation.CREATE && StringUtils.hasText(op.getTitle()))
+                .map(TodoBulkOperationDto::getTitle)
+                .toList();
+        User user = null;
+        Set<String> usedTitles = new HashSet<>();
+        if (!createTitles.isEmpty()) {
+            user = userRepository.findByUsername(currentUsername)
+                    .orElseThrow(() -> new ResourceNotFoundException("User not found"));
+            todoRepository.findTitlesByUserAndTitleIn(user, createTitles)
+                    .forEach(title -> usedTitles.add(title.toLowerCase(Locale.ROOT)));
+        }
+
+        List<Todo> newTodos = new ArrayList<>();
+        List<Integer> newTodoIndexes = new ArrayList<>();
+        List<Todo> updatedTodos = new ArrayList<>();
+        List<Integer> updatedTodoIndexes = new ArrayList<>();
+        List<Todo> deletedTodos = new ArrayList<>();
+        // owner -> {selisih total, selisih completed}, diterapkan ke counter sekali setelah commit
+        Map<String, long[]> countDeltas = new HashMap<>();
+
+        for (int i = 0; i < operations.size(); i++) {
+            TodoBulkOperationDto op = operations.get(i);
+
+            if (op.getOperation() == null) {
+                results[i] = bulkError(i, op, HttpStatus.BAD_REQUEST, "operation cannot be empty");
+                continue;
+            }
+
+            if (op.getOperation() == TodoBulkOperationDto.Operation.CREATE) {
+                if (!StringUtils.hasText(op.getTitle()) || !StringUtils.hasText(op.getDescription())) {
+                    results[i] = bulkError(i, op, HttpStatus.BAD_REQUEST, "title and description cannot be empty");
+                    continue;
+                }
+                if (!usedTitles.add(op.getTitle().toLowerCase(Locale.ROOT))) {
+                    results[i] = bulkError(i, op, HttpStatus.BAD_REQUEST, "Title already exists");
+                    continue;
+                }
+
+                Todo todo = new Todo();
+                todo.setTitle(op.getTitle());
+                todo.setDescription(op.getDescription());
+                todo.setCompleted(op.isCompleted());
+                todo.setUser(user);
+                todo.setCreatedBy(currentUsername);
+                newTodos.add(todo);
+                newTodoIndexes.add(i);
+                continue;
+            }
+
+            Todo todo = op.getId() == null ? null : todos.get(op.getId());
+            if (todo == null) {
+                results[i] = bulkError(i, op, HttpStatus.NOT_FOUND, "Todo not found with id : " + op.getId());
+                continue;
+            }
+            if (!admin && !todo.getCreatedBy().equals(currentUsername)) {
+                results[i] = bulkError(i, op, HttpStatus.FORBIDDEN, "you dont have access to another user data");
+                continue;
+            }
+
+            boolean wasCompleted = todo.isCompleted();
+            switch (op.getOperation()) {
+                case UPDATE -> {
+                    if (!StringUtils.hasText(op.getTitle()) || !StringUtils.hasText(op.getDescription())) {
+                        results[i] = bulkError(i, op, HttpStatus.BAD_REQUEST, "title and description cannot be empty");
+                        continue;
+                    }
+                    todo.setTitle(op.getTitle());
+                    todo.setDescription(op.getDescription());
+                    todo.setCompleted(op.isCompleted());
+                }
+                case COMPLETE -> todo.setCompleted(Boolean.TRUE);
+                case INCOMPLETE -> todo.setCompleted(Boolean.FALSE);
+                case DELETE -> {
+                    // todo yang sudah dihapus tidak bisa dipakai operasi berikutnya
+                    todos.remove(todo.getId());
+                    deletedTodos.add(todo);
+                    addCountDelta(countDeltas, todo.getCreatedBy(), -1, wasCompleted ? -1 : 0);
+                    results[i] = new TodoBulkResultDto(i, op.getOperation(), HttpStatus.OK.value(), "Todo deleted", null);
+                    continue;
+                }
+                default -> {
+                }
+            }
+
+            // UPDATE / COMPLETE / INCOMPLETE di-flush sekaligus (JDBC batch update)
+            todo.setUpdatedBy(currentUsername);
+            updatedTodos.add(todo);
+            updatedTodoIndexes.add(i);
+            addCountDelta(countDeltas, todo.getCreatedBy(), 0, completedDelta(wasCompleted, todo.isCompleted()));
+        }
+
+        newTodos.forEach(todo -> addCountDelta(countDeltas, currentUsername, 1, todo.isCompleted() ? 1 : 0));
+        countDeltas.forEach((owner, delta) -> {
+            todoCounters.addAfterCommit(owner, delta[0], delta[1]);
+            // jumlah baris hanya berubah oleh CREATE / DELETE
+            if (delta[0] != 0) {
+                pageCountCache.invalidateAfterCommit(PageCountCache.userTodos(owner), PageCountCache.ALL_TODOS);
+            }
+        });
+
+        // id dari sequence (pooled), jadi insert bisa di-batch oleh Hibernate
+        List<Todo> savedTodos = todoRepository.saveAll(newTodos);
+        todoRepository.deleteAll(deletedTodos);
+
+        // flush dulu supaya version di response & event sudah versi baru
+        todoRepository.flush();
+
+        // tombstone di-stamp setelah semua write di-flush (di-insert saat commit)
+        todoTombstoneRepository.saveAll(deletedTodos.stream().map(this::toTombstone).toList());
+
+        for (int i = 0; i < savedTodos.size(); i++) {
+            int index = newTodoIndexes.get(i);
+            TodoDto todoDto = TodoMapper.mapToTodoDto(savedTodos.get(i));
+            results[index] = new TodoBulkResultDto(index, TodoBulkOperationDto.Operation.CREATE,
+                    HttpStatus.CREATED.value(), null, todoDto);
+            publish(TodoEvent.Type.CREATED, savedTodos.get(i), todoDto);
+        }
+
+        for (int i = 0; i < updatedTodos.size(); i++) {
+            int index = updatedTodoIndexes.get(i);
+            TodoBulkOperationDto.Operation operation = operations.get(index).getOperation();
+            TodoDto todoDto = TodoMapper.mapToTodoDto(updatedTodos.get(i));
+            results[index] = new TodoBulkResultDto(index, operation, HttpStatus.OK.value(), null, todoDto);
+            publish(toEventType(operation), updatedTodos.get(i), todoDto);
+        }
+
+        deletedTodos.forEach(todo -> publish(TodoEvent.Type.DELETED, todo, null));
+
+        return Arrays.asList(results);
+    }
+
+    @Override
+    @Transactional
+    public TodoBulkUpdateResponse markTodos(List<Long> ids, boolean completed) {
+        if (ids == null || ids.isEmpty()) {
+            throw new TodoAPIException(HttpStatus.BAD_REQUEST, "ids cannot be empty");
+        }
+
+        String currentUsername = getCurrentUsername();
+        boolean admin = isAdmin();
+        Set<Long> uniqueIds = new HashSet<>(ids);
+
+        // todo yang benar-benar berubah (milik user & status berbeda), di-lock sampai commit
+        List<TodoVersionDto> changing = admin
+                ? todoRepository.findChangingForUpdate(uniqueIds, completed)
+                : todoRepository.findChangingByCreatedByForUpdate(uniqueIds, currentUsername, completed);
+        if (changing.isEmpty()) {
+            return new TodoBulkUpdateResponse(uniqueIds.size(), 0, List.of());
+        }
+
+        // time_updated diambil setelah lock didapat: waktu menunggu lock tidak ikut menjauhkan time_updated dari commit
+        LocalDateTime now = LocalDateTime.now();
+
+        Set<Long> changingIds = changing.stream().map(TodoVersionDto::getId).collect(Collectors.toSet());
+
+        // satu statement UPDATE untuk semua todo yang berubah
+        int affected = admin
+                ? todoRepository.updateCompletedByIds(changingIds, completed, currentUsername, now)
+                : todoRepository.updateCompletedByIdsAndCreatedBy(changingIds, currentUsername, completed, currentUsername, now);
+
+        // UPDATE menaikkan version + 1, sama seperti @Version
+        changing.forEach(todo -> todo.setVersion(todo.getVersion() + 1));
+
+        long sign = completed ? 1 : -1;
+        changing.stream()
+                .collect(Collectors.groupingBy(TodoVersionDto::getCreatedBy, Collectors.counting()))
+                .forEach((owner, count) -> todoCounters.addAfterCommit(owner, 0, sign * count));
+
+        todoSearchIndex.markCompletedAfterCommit(changingIds, admin ? null : currentUsername, completed, currentUsername);
+
+        // UPDATE massal tidak mengembalikan baris, jadi todo dibaca ulang hanya kalau ada client SSE yang terhubung.
+        // Hanya todo yang benar-benar berubah (bukan yang sudah di status tujuan) yang dikirim.
+        if (todoEventBus.hasSubscribers()) {
+            TodoEvent.Type type = completed ? TodoEvent.Type.COMPLETED : TodoEvent.Type.INCOMPLETED;
+            todoRepository.findAllById(changingIds)
+                    .forEach(todo -> todoEventBus.publishAfterCommit(type, todo.getId(), todo.getCreatedBy(), TodoMapper.mapToTodoDto(todo)));
+        }
+
+        return new TodoBulkUpdateResponse(uniqueIds.size(), affected, changing);
+    }
+
+    // Tombstone yang sudah lewat masa retensi tidak dibutuhkan lagi (client dengan watermark lama dapat 410)
+    @Scheduled(fixedDelay = 3_600_000)
+    @Transactional
+    public void purgeTombstones() {
+        todoTombstoneRepository.deleteByDeletedAtBefore(LocalDateTime.now().minus(TOMBSTONE_RETENTION));
+    }
+
+    // sort di luar whitelist ditolak, supaya tidak ada ORDER BY tanpa index (filesort)
+    private Sort toSort(String sort, String direction) {
+        String property = SORTABLE_COLUMNS.get(sort == null ? "id" : sort);
+        if (property == null) {
+            throw new TodoAPIException(HttpStatus.BAD_REQUEST, "Sort must be one of " + SORTABLE_COLUMNS.keySet());
+        }
+
+        Sort.Direction sortDirection = Sort.Direction.fromOptionalString(direction)
+                .orElseThrow(() -> new TodoAPIException(HttpStatus.BAD_REQUEST, "Direction must be asc or desc"));
+
+        // id sebagai tie breaker supaya urutan antar halaman stabil
+        Sort result = Sort.by(sortDirection, property);
+        return property.equals("id") ? result : result.and(Sort.by(sortDirection, "id"));
+    }
+
+    // Event SSE + search index, keduanya baru diproses setelah commit
+    private void publish(TodoEvent.Type type, Todo todo, TodoDto todoDto) {
+        todoEventBus.publishAfterCommit(type, todo.getId(), todo.getCreatedBy(), todoDto);
+
+        if (todoDto == null) {
+            todoSearchIndex.removeAfterCommit(todo.getId(), todo.getCreatedBy());
+        } else {
+            todoSearchIndex.putAfterCommit(todoDto);
+        }
+    }
+
+    private PagedResponse<TodoDto> toPagedResponse(Slice<TodoDto> slice, long total) {
+        return new PagedResponse<>(
+                slice.getContent(),
+                slice.getNumber(),
+                slice.getSize(),
+                total,
+                (int) Math.ceil((double) total / slice.getSize())
+        );
+    }
+
+    private long completedDelta(boolean wasCompleted, boolean completed) {
+        if (wasCompleted == completed) return 0;
+        return completed ? 1 : -1;
+    }
+
+    private void addCountDelta(Map<String, long[]> countDeltas, String owner, long total, long completed) {
+        long[] delta = countDeltas.computeIfAbsent(owner, key -> new long[2]);
+        delta[0] += total;
+        delta[1] += completed;
+    }
+
+    private TodoEvent.Type toEventType(TodoBulkOperationDto.Operation operation) {
+        return switch (operation) {
+            case COMPLETE -> TodoEvent.Type.COMPLETED;
+            case INCOMPLETE -> TodoEvent.Type.INCOMPLETED;
+            default -> TodoEvent.Type.UPDATED;
+        };
+    }
+
+    private TodoTombstone toTombstone(Todo todo) {
+        return new TodoTombstone(todo.getId(), todo.getCreatedBy(), LocalDateTime.now());
+    }
+
+    private TodoBulkResultDto bulkError(int index, TodoBulkOperationDto op, HttpStatus status, String message) {
+        return new TodoBulkResultDto(index, op.getOperation(), status.value(), message, null);
     }
 }
@@ -0,0 +1,116 @@
+package com.myproject.todo_management.stats;
+
+import com.myproject.todo_management.utils.AfterCommit;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Cache hasil COUNT(*) untuk total_elements / total_pages di PagedResponse.
+// Key per owner (USER) dan per role (ADMIN = semua todo / semua user), di-invalidate oleh write yang mengubah jumlah baris.
+// Setiap key punya versi sendiri: invalidate menyimpan tombstone (count = null) dengan versi baru,
+// COUNT yang dihitung sebelum invalidate (versi lama) ditolak oleh put(). Write ke key lain tidak berpengaruh.
+@Component
+public class PageCountCache {
+
+    public static final String ALL_TODOS = "todos:all";
+
+    public static final String ALL_USERS = "users:all";
+
+    private final Map<String, CacheEntry> cache = new ConcurrentHashMap<>();
+
+    // sumber versi tombstone, tidak pernah dipakai ulang (key yang belum ada di cache = versi 0)
+    private final AtomicLong versions = new AtomicLong();
+
+    private final int maxSize;
+
+    private final long ttlMillis;
+
+    private final Counter hits;
+
+    private final Counter misses;
+
+    public PageCountCache(@Value("${app.count-cache.max-size:10000}") int maxSize,
+                          @Value("${app.count-cache.ttl-seconds:300}") long ttlSeconds,
+                          MeterRegistry meterRegistry) {
+        this.maxSize = maxSize;
+        this.ttlMillis = ttlSeconds * 1000;
+        this.hits = Counter.builder("page.count.cache")
+                .tag("result", "hit")
+                .register(meterRegistry);
+        this.misses = Counter.builder("page.count.cache")
+                .tag("result", "miss")
+                .register(meterRegistry);
+    }
+
+    public static String userTodos(String username) {
+        return "todos:user:" + username;
+    }
+
+    public Long get(String key) {
+        CacheEntry entry = cache.get(key);
+
+        if (entry == null || entry.count() == null || entry.expiresAt() <= System.currentTimeMillis()) {
+            misses.increment();
+            return null;
+        }
+
+        hits.increment();
+        return entry.count();
+    }
+
+    // ambil sebelum menjalankan COUNT, lalu kirim ke put()
+    public long stamp(String key) {
+        CacheEntry entry = cache.get(key);
+        return entry == null ? 0 : entry.version();
+    }
+
+    // cek versi dan simpan dalam satu compute (atomic per key), invalidate tidak bisa terselip di antaranya
+    public void put(String key, long count, long stamp) {
+        if (cache.size() >= maxSize) {
+            evict();
+        }
+
+        long expiresAt = System.currentTimeMillis() + ttlMillis;
+        cache.compute(key, (k, entry) -> {
+            long version = entry == null ? 0 : entry.version();
+            return version == stamp ? new CacheEntry(count, version, expiresAt) : entry;
+        });
+    }
+
+    public void invalidateAfterCommit(String... keys) {
+        AfterCommit.run(() -> invalidate(keys));
+    }
+
+    private void invalidate(String... keys) {
+        if (cache.size() >= maxSize) {
+            evict();
+        }
+
+        long expiresAt = System.currentTimeMillis() + ttlMillis;
+        for (String key : keys) {
+            cache.put(key, new CacheEntry(null, versions.incrementAndGet(), expiresAt));
+        }
+    }
+
+    // Entry yang sudah expired dibuang dulu, lalu entry berisi count. Tombstone yang belum expired
+    // tidak dibuang: tanpa tombstone versi key kembali ke 0 dan COUNT dari sebelum invalidate bisa masuk lagi.
+    private void evict() {
+        long now = System.currentTimeMillis();
+        cache.values().removeIf(entry -> entry.expiresAt() <= now);
+
+        Iterator<CacheEntry> iterator = cache.values().iterator();
+        while (cache.size() >= maxSize && iterator.hasNext()) {
+            if (iterator.next().count() != null) iterator.remove();
+        }
+    }
+
+    // count = null -> tombstone (baru di-invalidate)
+    private record CacheEntry(Long count, long version, long expiresAt) {
+    }
+}
@@ -0,0 +1,214 @@
+package com.myproject.todo_management.stats;
+
+import com.myproject.todo_management.dto.TodoCountDto;
+import com.myproject.todo_management.dto.TodoStatsDto;
+import com.myproject.todo_management.respository.TodoRepository;
+import com.myproject.todo_management.utils.AfterCommit;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+// Jumlah todo (total / completed) per owner dan global, di-update TodoServiceImpl setelah commit.
+// LongAdder = counter striped, increment dari banyak thread tidak rebutan satu cache line.
+// Job reconcile berkala menyamakan lagi dengan COUNT dari database kalau ada selisih.
+@Component
+@Slf4j
+public class TodoCounters {
+
+    private final Map<String, Counts> owners = new ConcurrentHashMap<>();
+
+    // selalu = jumlah semua owner, setiap perubahan owner juga diterapkan ke sini
+    private final Counts global = new Counts();
+
+    // false sampai reconcile pertama selesai untuk semua owner (counter belum berisi data database)
+    private volatile boolean ready;
+
+    private final TodoRepository todoRepository;
+
+    private final Counter drift;
+
+    public TodoCounters(TodoRepository todoRepository, MeterRegistry meterRegistry) {
+        this.todoRepository = todoRepository;
+        this.drift = Counter.builder("todo.stats.drift").register(meterRegistry);
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    public TodoStatsDto get(String owner) {
+        Counts counts = owners.get(owner);
+        return counts == null ? new TodoStatsDto(0, 0, 0) : counts.toDto();
+    }
+
+    public TodoStatsDto getGlobal() {
+        return global.toDto();
+    }
+
+    // Delta ditandai in-flight sejak dipanggil (sebelum commit) sampai diterapkan / rollback,
+    // reconcile tidak mengoreksi owner yang masih punya delta in-flight
+    public void addAfterCommit(String owner, long totalDelta, long completedDelta) {
+        if (totalDelta == 0 && completedDelta == 0) return;
+
+        Counts counts = acquire(owner);
+
+        AfterCommit.onCompletion(
+                () -> apply(counts, totalDelta, completedDelta),
+                counts.inFlight::decrementAndGet
+        );
+    }
+
+    // semua todo owner ikut terhapus (user dihapus)
+    public void removeOwnerAfterCommit(String owner) {
+        AfterCommit.run(() -> owners.computeIfPresent(owner, (key, counts) -> {
+            long total = counts.total.sum();
+            long completed = counts.completed.sum();
+            counts.add(-total, -completed);
+            global.add(-total, -completed);
+            // masih ada delta in-flight: entry dibiarkan (bernilai 0), dibersihkan reconcile berikutnya
+            return counts.inFlight.get() == 0 ? null : counts;
+        }));
+    }
+
+    // Satu query GROUP BY (index covering created_by, completed), dijalankan saat startup lalu berkala.
+    // COUNT database adalah snapshot pada satu titik waktu, sedangkan delta masuk counter setelah commit.
+    // Supaya reconcile sendiri tidak membuat selisih, owner hanya dikoreksi kalau sepanjang query
+    // tidak ada delta in-flight dan tidak ada delta yang diterapkan; owner lain dicoba lagi di putaran berikutnya.
+    // todo.stats.drift hanya menghitung selisih yang ditemukan dalam kondisi tersebut (selisih nyata).
+    @Scheduled(fixedDelayString = "${app.todo-stats.reconcile-interval-ms:600000}")
+    public void reconcile() {
+        try {
+            // owner yang tenang sebelum query: counts -> jumlah delta yang sudah diterapkan
+            Map<String, Snapshot> before = new HashMap<>();
+            owners.forEach((owner, counts) -> {
+                if (counts.inFlight.get() == 0) before.put(owner, new Snapshot(counts, counts.applied.get()));
+            });
+            Set<String> presentBefore = new HashSet<>(owners.keySet());
+
+            List<TodoCountDto> rows = todoRepository.countGroupByCreatedBy();
+
+            Result result = new Result();
+            Set<String> seen = new HashSet<>();
+
+            for (TodoCountDto row : rows) {
+                seen.add(row.getCreatedBy());
+
+                if (!presentBefore.contains(row.getCreatedBy())) {
+                    // belum ada counter sama sekali: dibuat dari database kalau tetap belum ada
+                    owners.compute(row.getCreatedBy(), (key, counts) -> {
+                        if (counts != null) {
+                            result.skipped++;
+                            return counts;
+                        }
+                        Counts created = new Counts();
+                        created.add(row.getTotal(), row.getCompleted());
+                        global.add(row.getTotal(), row.getCompleted());
+                        result.difference += row.getTotal() + row.getCompleted();
+                        return created;
+                    });
+                    continue;
+                }
+
+                correct(row.getCreatedBy(), before.get(row.getCreatedBy()), row.getTotal(), row.getCompleted(), false, result);
+            }
+
+            // owner tanpa todo di database: dikoreksi ke 0 lalu dibuang
+            for (String owner : presentBefore) {
+                if (!seen.contains(owner)) correct(owner, before.get(owner), 0, 0, true, result);
+            }
+
+            if (ready && result.difference > 0) {
+                drift.increment(result.difference);
+                log.warn("Todo statistics drifted by {} and were reconciled", result.difference);
+            }
+            if (result.skipped == 0) ready = true;
+        } catch (RuntimeException ex) {
+            log.error("Failed to reconcile todo statistics", ex);
+        }
+    }
+
+    // compute = lock bin map, acquire() untuk owner yang sama tidak bisa berjalan bersamaan
+    private void correct(String owner, Snapshot snapshot, long actualTotal, long actualCompleted,
+                         boolean removeWhenQuiet, Result result) {
+        owners.computeIfPresent(owner, (key, counts) -> {
+            boolean quiet = snapshot != null
+                    && snapshot.counts() == counts
+                    && counts.inFlight.get() == 0
+                    && counts.applied.get() == snapshot.applied();
+            if (!quiet) {
+                result.skipped++;
+                return counts;
+            }
+
+            long totalDifference = actualTotal - counts.total.sum();
+            long completedDifference = actualCompleted - counts.completed.sum();
+            counts.add(totalDifference, completedDifference);
+            global.add(totalDifference, completedDifference);
+            result.difference += Math.abs(totalDifference) + Math.abs(completedDifference);
+
+            return removeWhenQuiet ? null : counts;
+        });
+    }
+
+    private Counts acquire(String owner) {
+        return owners.compute(owner, (key, counts) -> {
+            Counts current = counts == null ? new Counts() : counts;
+            current.inFlight.incrementAndGet();
+            return current;
+        });
+    }
+
+    private void apply(Counts counts, long totalDelta, long completedDelta) {
+        try {
+            counts.add(totalDelta, completedDelta);
+            global.add(totalDelta, completedDelta);
+        } finally {
+            counts.inFlight.decrementAndGet();
+        }
+    }
+
+    private record Snapshot(Counts counts, long applied) {
+    }
+
+    private static final class Result {
+        long difference;
+        int skipped;
+    }
+
+    private static final class Counts {
+
+        private final LongAdder total = new LongAdder();
+
+        private final LongAdder completed = new LongAdder();
+
+        // delta yang sudah terdaftar (transaksi belum selesai) tapi belum diterapkan
+        private final AtomicInteger inFlight = new AtomicInteger();
+
+        // naik setiap ada perubahan, untuk mendeteksi delta yang masuk selama reconcile
+        private final AtomicLong applied = new AtomicLong();
+
+        void add(long totalDelta, long completedDelta) {
+            total.add(totalDelta);
+            completed.add(completedDelta);
+            applied.incrementAndGet();
+        }
+
+        TodoStatsDto toDto() {
+            long totalValue = total.sum();
+            long completedValue = completed.sum();
+            return new TodoStatsDto(totalValue, completedValue, totalValue - completedValue);
+        }
+    }
+}
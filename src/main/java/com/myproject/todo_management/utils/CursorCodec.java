@@ -0,0 +1,33 @@
+package com.myproject.todo_management.utils;
+
+import com.myproject.todo_management.exception.TodoAPIException;
+import org.springframework.http.HttpStatus;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+// Encode / decode cursor keyset pagination (id terakhir) jadi string opaque untuk client
+public class CursorCodec {
+
+    private CursorCodec() {
+    }
+
+    public static String encode(Long lastId) {
+        if (lastId == null) return null;
+        return Base64.getUrlEncoder()
+                .withoutPadding()
+                .encodeToString(lastId.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    // cursor kosong = halaman pertama
+    public static long decode(String cursor) {
+        if (cursor == null || cursor.isBlank()) return 0L;
+
+        try {
+            String value = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            return Long.parseLong(value);
+        } catch (IllegalArgumentException ex) {
+            throw new TodoAPIException(HttpStatus.BAD_REQUEST, "Invalid cursor");
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package com.myproject.todo_management.utils;
+
+import com.myproject.todo_management.exception.TodoAPIException;
+import org.springframework.http.HttpStatus;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+// Watermark delta sync = (time_updated, id) todo terakhir yang sudah dikirim, di-encode jadi string opaque
+public record SyncWatermark(LocalDateTime time, long id) {
+
+    // watermark kosong = full sync dari awal
+    public static final SyncWatermark INITIAL = new SyncWatermark(LocalDateTime.of(1970, 1, 1, 0, 0), 0L);
+
+    public String encode() {
+        return Base64.getUrlEncoder()
+                .withoutPadding()
+                .encodeToString((time + "_" + id).getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static SyncWatermark decode(String watermark) {
+        if (watermark == null || watermark.isBlank()) return INITIAL;
+
+        try {
+            String value = new String(Base64.getUrlDecoder().decode(watermark), StandardCharsets.UTF_8);
+            int separator = value.lastIndexOf('_');
+            return new SyncWatermark(
+                    LocalDateTime.parse(value.substring(0, separator)),
+                    Long.parseLong(value.substring(separator + 1))
+            );
+        } catch (IllegalArgumentException | IndexOutOfBoundsException | DateTimeParseException ex) {
+            throw new TodoAPIException(HttpStatus.BAD_REQUEST, "Invalid watermark");
+        }
+    }
+
+    public boolean isInitial() {
+        return this.equals(INITIAL);
+    }
+}
@@ -0,0 +1,33 @@
+package com.myproject.todo_management.utils;
+
+import com.myproject.todo_management.exception.TodoAPIException;
+import org.springframework.http.HttpStatus;
+
+// Konversi kolom @Version <-> ETag ("3") untuk conditional request (If-None-Match / If-Match)
+public class VersionETag {
+
+    private VersionETag() {
+    }
+
+    public static String of(Long version) {
+        return "\"" + (version == null ? 0 : version) + "\"";
+    }
+
+    // null = header tidak dikirim atau "*", berarti update tanpa cek versi
+    public static Long parseIfMatch(String ifMatch) {
+        if (ifMatch == null || ifMatch.isBlank() || ifMatch.trim().equals("*")) return null;
+
+        String value = ifMatch.trim();
+        if (value.startsWith("W/")) value = value.substring(2);
+        if (value.length() >= 2 && value.startsWith("\"") && value.endsWith("\"")) {
+            value = value.substring(1, value.length() - 1);
+        }
+
+        try {
+            return Long.parseLong(value);
+        } catch (NumberFormatException ex) {
+            // ETag yang tidak dikenal tidak mungkin cocok dengan versi mana pun
+            throw new TodoAPIException(HttpStatus.PRECONDITION_FAILED, "If-Match does not match the current version");
+        }
+    }
+}
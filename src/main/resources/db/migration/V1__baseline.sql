@@ -0,0 +1,51 @@
+-- Schema awal (sama dengan yang sebelumnya dibuat oleh hibernate ddl-auto=update).
+-- Database yang sudah ada akan di-baseline di versi 1, jadi script ini hanya jalan di database baru.
+
+CREATE TABLE roles (
+    id   BIGINT       NOT NULL AUTO_INCREMENT,
+    name VARCHAR(255),
+    PRIMARY KEY (id)
+) ENGINE = InnoDB;
+
+CREATE TABLE users (
+    id            BIGINT       NOT NULL AUTO_INCREMENT,
+    name          VARCHAR(255),
+    username      VARCHAR(255) NOT NULL,
+    email         VARCHAR(255) NOT NULL,
+    password      VARCHAR(255) NOT NULL,
+    birth_date    DATE         NOT NULL,
+    job_title     VARCHAR(255) NOT NULL,
+    location      VARCHAR(255) NOT NULL,
+    profile_photo VARCHAR(255),
+    created_at    DATETIME(6),
+    updated_at    DATETIME(6),
+    created_by    VARCHAR(255),
+    updated_by    VARCHAR(255),
+    PRIMARY KEY (id),
+    CONSTRAINT uk_users_username UNIQUE (username),
+    CONSTRAINT uk_users_email UNIQUE (email)
+) ENGINE = InnoDB;
+
+CREATE TABLE users_roles (
+    user_id BIGINT NOT NULL,
+    role_id BIGINT NOT NULL,
+    PRIMARY KEY (user_id, role_id),
+    CONSTRAINT fk_users_roles_user FOREIGN KEY (user_id) REFERENCES users (id),
+    CONSTRAINT fk_users_roles_role FOREIGN KEY (role_id) REFERENCES roles (id)
+) ENGINE = InnoDB;
+
+CREATE TABLE todos (
+    id           BIGINT       NOT NULL AUTO_INCREMENT,
+    title        VARCHAR(255) NOT NULL,
+    description  VARCHAR(255) NOT NULL,
+    completed    BIT          NOT NULL,
+    user_id      BIGINT       NOT NULL,
+    created_by   VARCHAR(255) NOT NULL,
+    updated_by   VARCHAR(255),
+    time_created DATETIME(6),
+    time_updated DATETIME(6),
+    PRIMARY KEY (id),
+    CONSTRAINT fk_todos_user FOREIGN KEY (user_id) REFERENCES users (id)
+) ENGINE = InnoDB;
+
+INSERT INTO roles (name) VALUES ('ROLE_ADMIN'), ('ROLE_USER');
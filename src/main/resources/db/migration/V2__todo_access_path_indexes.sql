@@ -0,0 +1,5 @@
+-- findByCreatedBy / findTodoDtoByCreatedBy(After) : filter created_by, urut berdasarkan id (keyset pagination)
+CREATE INDEX idx_todos_created_by_id ON todos (created_by, id);
+
+-- existsByTitleAndUser (title, user_id) dan deleteByUserId (prefix user_id)
+CREATE INDEX idx_todos_user_id_title ON todos (user_id, title);
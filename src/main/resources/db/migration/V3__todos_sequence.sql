@@ -0,0 +1,9 @@
+-- Todo id pindah dari IDENTITY ke sequence (tabel todos_seq, pooled allocationSize = 50)
+-- supaya Hibernate bisa batch insert. Pooled optimizer memakai next_val sebagai batas atas blok,
+-- jadi nilai awal = MAX(id) + 50 agar id baru mulai dari MAX(id) + 1.
+CREATE TABLE todos_seq (
+    next_val BIGINT
+) ENGINE = InnoDB;
+
+INSERT INTO todos_seq (next_val)
+SELECT COALESCE(MAX(id), 0) + 50 FROM todos;
@@ -0,0 +1,3 @@
+-- Kolom version untuk optimistic locking (@Version) dan ETag di response GET
+ALTER TABLE todos ADD COLUMN version BIGINT NOT NULL DEFAULT 0;
+ALTER TABLE users ADD COLUMN version BIGINT NOT NULL DEFAULT 0;
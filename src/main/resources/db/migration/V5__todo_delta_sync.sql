@@ -0,0 +1,17 @@
+-- Delta sync: ambil todo yang berubah sejak watermark per user
+CREATE INDEX idx_todos_created_by_time_updated ON todos (created_by, time_updated);
+
+-- baris lama tanpa time_updated tetap harus ikut full sync
+UPDATE todos SET time_updated = COALESCE(time_created, NOW(6)) WHERE time_updated IS NULL;
+
+-- Tombstone: todo yang dihapus, supaya client yang sync bisa ikut menghapus.
+-- Id todo berasal dari sequence dan tidak pernah dipakai ulang, jadi langsung jadi primary key.
+CREATE TABLE todo_tombstones (
+    todo_id    BIGINT       NOT NULL,
+    created_by VARCHAR(255) NOT NULL,
+    deleted_at DATETIME(6)  NOT NULL,
+    PRIMARY KEY (todo_id)
+) ENGINE = InnoDB;
+
+CREATE INDEX idx_todo_tombstones_created_by_deleted_at ON todo_tombstones (created_by, deleted_at);
+CREATE INDEX idx_todo_tombstones_deleted_at ON todo_tombstones (deleted_at);
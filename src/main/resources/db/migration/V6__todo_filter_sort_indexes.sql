@@ -0,0 +1,3 @@
+-- Filter & sort list todo per user: completed (urut id) dan range / urut time_created
+CREATE INDEX idx_todos_created_by_completed_id ON todos (created_by, completed, id);
+CREATE INDEX idx_todos_created_by_time_created ON todos (created_by, time_created);
@@ -0,0 +1,3 @@
+-- Sort list todo ADMIN (tanpa filter created_by) berdasarkan time_created / time_updated, id sebagai tie breaker
+CREATE INDEX idx_todos_time_created_id ON todos (time_created, id);
+CREATE INDEX idx_todos_time_updated_id ON todos (time_updated, id);
@@ -0,0 +1,190 @@
+package com.myproject.todo_management;
+
+import com.myproject.todo_management.dto.JwtAuthResponse;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jdk.jfr.consumer.RecordingStream;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.util.LinkedMultiValueMap;
+import org.springframework.util.MultiValueMap;
+import org.springframework.web.client.RestClient;
+import org.springframework.web.client.RestClientException;
+import org.testcontainers.containers.MySQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Load test: request todo dengan platform thread (default) vs profile virtual-threads di MySQL yang sama.
+// Dicatat throughput, latency, virtual thread yang ter-pin (JFR jdk.VirtualThreadPinned, mis. di driver JDBC)
+// dan timeout menunggu koneksi Hikari. Tidak jalan di build biasa:
+// mvn test -Dtest=VirtualThreadLoadTest -Dloadtest=true
+@Slf4j
+@Testcontainers(disabledWithoutDocker = true)
+@EnabledIfSystemProperty(named = "loadtest", matches = "true")
+class VirtualThreadLoadTest {
+
+    private static final int CLIENTS = 400;
+
+    private static final int REQUESTS_PER_CLIENT = 25;
+
+    private static final int TODOS = 20;
+
+    private static final String PASSWORD = "Secret123!";
+
+    @Container
+    static MySQLContainer<?> mysql = new MySQLContainer<>("mysql:8.0");
+
+    private final AtomicInteger users = new AtomicInteger();
+
+    @Test
+    void compareTodoThroughputOnPlatformAndVirtualThreads() {
+        Result platform = run("platform");
+        Result virtual = run("virtual", "virtual-threads");
+
+        for (Result result : new Result[]{platform, virtual}) {
+            log.info("{}: {} requests, {} errors, {} req/s, p50 {} ms, p99 {} ms, {} pinned virtual threads, {} connection timeouts",
+                    result.mode(), result.requests(), result.errors(), String.format("%.1f", result.throughput()),
+                    result.p50Millis(), result.p99Millis(), result.pinned(), result.connectionTimeouts());
+        }
+
+        assertThat(platform.errors()).isZero();
+        assertThat(virtual.errors()).isZero();
+    }
+
+    private Result run(String mode, String... profiles) {
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(TodoManagementApplication.class)
+                .profiles(profiles)
+                .properties(
+                        "server.port=0",
+                        "spring.datasource.url=" + mysql.getJdbcUrl(),
+                        "spring.datasource.username=" + mysql.getUsername(),
+                        "spring.datasource.password=" + mysql.getPassword(),
+                        // pool sama besar di kedua mode, yang dibandingkan hanya model thread-nya
+                        "spring.datasource.hikari.maximum-pool-size=30",
+                        "spring.datasource.hikari.connection-timeout=5000",
+                        // rate limit per user tidak ikut diukur
+                        "app.api-rate-limit.user.requests-per-minute=10000000",
+                        "app.api-rate-limit.user.max-concurrent=100000",
+                        "app.api-rate-limit.max-keys=100000")
+                .run()) {
+
+            RestClient client = RestClient.create("http://localhost:" + context.getEnvironment().getProperty("local.server.port"));
+            String token = registerAndLogin(client, mode);
+            for (int i = 0; i < TODOS; i++) {
+                client.post().uri("/api/todos")
+                        .header(HttpHeaders.AUTHORIZATION, "Bearer " + token)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .body(Map.of("title", "Todo " + i, "description", "Description " + i))
+                        .retrieve()
+                        .toBodilessEntity();
+            }
+
+            LongAdder pinned = new LongAdder();
+            long[] latencies = new long[CLIENTS * REQUESTS_PER_CLIENT];
+            LongAdder errors = new LongAdder();
+            long elapsed;
+
+            try (RecordingStream recording = new RecordingStream()) {
+                recording.enable("jdk.VirtualThreadPinned").withThreshold(Duration.ofMillis(1));
+                recording.onEvent("jdk.VirtualThreadPinned", event -> pinned.increment());
+                recording.startAsync();
+
+                long start = System.nanoTime();
+                // client di virtual thread supaya jumlah client tidak dibatasi jumlah thread test
+                try (ExecutorService clients = Executors.newVirtualThreadPerTaskExecutor()) {
+                    for (int c = 0; c < CLIENTS; c++) {
+                        int offset = c * REQUESTS_PER_CLIENT;
+                        clients.submit(() -> {
+                            for (int r = 0; r < REQUESTS_PER_CLIENT; r++) {
+                                long requestStart = System.nanoTime();
+                                try {
+                                    client.get().uri("/api/todos?page=0&size=20")
+                                            .header(HttpHeaders.AUTHORIZATION, "Bearer " + token)
+                                            .retrieve()
+                                            .toBodilessEntity();
+                                } catch (RestClientException ex) {
+                                    errors.increment();
+                                }
+                                latencies[offset + r] = System.nanoTime() - requestStart;
+                            }
+                        });
+                    }
+                }
+                elapsed = System.nanoTime() - start;
+
+                // stop() memproses event yang masih di buffer sebelum dihitung
+                recording.stop();
+            }
+
+            double connectionTimeouts = context.getBean(MeterRegistry.class)
+                    .find("hikaricp.connections.timeout")
+                    .counters()
+                    .stream()
+                    .mapToDouble(Counter::count)
+                    .sum();
+
+            Arrays.sort(latencies);
+            return new Result(
+                    mode,
+                    latencies.length,
+                    errors.sum(),
+                    latencies.length / (elapsed / 1_000_000_000.0),
+                    TimeUnit.NANOSECONDS.toMillis(latencies[latencies.length / 2]),
+                    TimeUnit.NANOSECONDS.toMillis(latencies[(int) (latencies.length * 0.99)]),
+                    pinned.sum(),
+                    (long) connectionTimeouts
+            );
+        }
+    }
+
+    private String registerAndLogin(RestClient client, String mode) {
+        String username = "load" + mode + users.incrementAndGet();
+
+        HttpHeaders json = new HttpHeaders();
+        json.setContentType(MediaType.APPLICATION_JSON);
+        MultiValueMap<String, Object> form = new LinkedMultiValueMap<>();
+        form.add("data", new HttpEntity<>(Map.of(
+                "name", "Load Test",
+                "username", username,
+                "email", username + "@example.com",
+                "password", PASSWORD,
+                "birthDate", "1990-01-01",
+                "jobTitle", "Tester",
+                "location", "Jakarta"
+        ), json));
+
+        client.post().uri("/api/auth/register")
+                .contentType(MediaType.MULTIPART_FORM_DATA)
+                .body(form)
+                .retrieve()
+                .toBodilessEntity();
+
+        JwtAuthResponse response = client.post().uri("/api/auth/login")
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(Map.of("usernameOrEmail", username, "password", PASSWORD))
+                .retrieve()
+                .body(JwtAuthResponse.class);
+        return response.getAccessToken();
+    }
+
+    private record Result(String mode, long requests, long errors, double throughput,
+                          long p50Millis, long p99Millis, long pinned, long connectionTimeouts) {
+    }
+}
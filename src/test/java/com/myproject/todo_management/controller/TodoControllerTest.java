@@ -0,0 +1,134 @@
+package com.myproject.todo_management.controller;
+
+import com.myproject.todo_management.dto.TodoDto;
+import com.myproject.todo_management.event.TodoEventBus;
+import com.myproject.todo_management.exception.TodoAPIException;
+import com.myproject.todo_management.security.CustomUserDetailService;
+import com.myproject.todo_management.security.JwtTokenProvider;
+import com.myproject.todo_management.security.UserDetailsCache;
+import com.myproject.todo_management.service.TodoService;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+// If-Match -> versi yang dicek service, versi lama / konflik saat flush -> 412, versi baru dikirim sebagai ETag
+@ExtendWith(MockitoExtension.class)
+class TodoControllerTest {
+
+    @Mock
+    private TodoService todoService;
+
+    @Mock
+    private TodoEventBus todoEventBus;
+
+    @Mock
+    private CustomUserDetailService userDetailService;
+
+    @Mock
+    private JwtTokenProvider jwtTokenProvider;
+
+    @InjectMocks
+    private TodoController todoController;
+
+    private final TodoDto request = new TodoDto(null, "Title", "Description", false, null, null, null);
+
+    @Test
+    void updateReturnsNewVersionAsETag() {
+        when(todoService.updateTodo(request, 1L, 3L))
+                .thenReturn(new TodoDto(1L, "Title", "Description", false, "alice", "alice", 4L));
+
+        ResponseEntity<?> response = todoController.updateTodo(request, 1L, "\"3\"");
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(response.getHeaders().getETag()).isEqualTo("\"4\"");
+    }
+
+    @Test
+    void updateWithoutIfMatchSkipsVersionCheck() {
+        when(todoService.updateTodo(request, 1L, null))
+                .thenReturn(new TodoDto(1L, "Title", "Description", false, "alice", "alice", 1L));
+
+        ResponseEntity<?> response = todoController.updateTodo(request, 1L, "*");
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+    }
+
+    @Test
+    void staleIfMatchReturns412() {
+        when(todoService.updateTodo(request, 1L, 2L))
+                .thenThrow(new TodoAPIException(HttpStatus.PRECONDITION_FAILED, "Todo has been modified by another request, please reload it"));
+
+        ResponseEntity<?> response = todoController.updateTodo(request, 1L, "\"2\"");
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.PRECONDITION_FAILED);
+    }
+
+    @Test
+    void concurrentUpdateDetectedOnFlushReturns412() {
+        when(todoService.updateTodo(request, 1L, 3L))
+                .thenThrow(new OptimisticLockingFailureException("version changed"));
+
+        ResponseEntity<?> response = todoController.updateTodo(request, 1L, "\"3\"");
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.PRECONDITION_FAILED);
+    }
+
+    @Test
+    void unparseableIfMatchReturns412() {
+        ResponseEntity<?> response = todoController.updateTodo(request, 1L, "\"abc\"");
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.PRECONDITION_FAILED);
+    }
+
+    @Test
+    void eventsTakeUserIdFromTokenWithoutLoadingUser() {
+        Claims claims = Jwts.claims().subject("alice").build();
+        SseEmitter emitter = new SseEmitter();
+        when(jwtTokenProvider.getUserId(claims)).thenReturn(7L);
+        when(todoEventBus.subscribe("alice", 7L, false)).thenReturn(emitter);
+
+        SseEmitter response = todoController.todoEvents(user("alice"), claims);
+
+        assertThat(response).isSameAs(emitter);
+        verify(userDetailService, never()).findUser(any());
+    }
+
+    @Test
+    void eventsFallBackToUserLookupForTokenWithoutUserId() {
+        Claims claims = Jwts.claims().subject("alice").build();
+        SseEmitter emitter = new SseEmitter();
+        when(jwtTokenProvider.getUserId(claims)).thenReturn(null);
+        when(userDetailService.findUser("alice")).thenReturn(Optional.of(
+                new UserDetailsCache.CachedUser(9L, "alice", "alice@example.com", "hash", Set.of())));
+        when(todoEventBus.subscribe("alice", 9L, false)).thenReturn(emitter);
+
+        SseEmitter response = todoController.todoEvents(user("alice"), claims);
+
+        assertThat(response).isSameAs(emitter);
+    }
+
+    private static Authentication user(String username) {
+        return new UsernamePasswordAuthenticationToken(username, null, List.of(new SimpleGrantedAuthority("ROLE_USER")));
+    }
+}
@@ -0,0 +1,76 @@
+package com.myproject.todo_management.entity;
+
+import jakarta.persistence.SequenceGenerator;
+import org.hibernate.id.IdentifierGeneratorHelper;
+import org.hibernate.id.IntegralDataTypeHolder;
+import org.hibernate.id.enhanced.AccessCallback;
+import org.hibernate.id.enhanced.PooledOptimizer;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.core.io.ClassPathResource;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Nilai awal todos_seq di migration V3 harus cocok dengan pooled optimizer Hibernate (allocationSize di Todo):
+// id pertama setelah migration = MAX(id) + 1, tanpa bentrok dengan id lama dan tanpa celah antar blok
+class TodoSequenceSeedTest {
+
+    private static final Pattern SEED = Pattern.compile("COALESCE\\(MAX\\(id\\), 0\\) \\+ (\\d+)");
+
+    @ParameterizedTest
+    @ValueSource(longs = {0, 120, 5000})
+    void firstIdsAfterMigrationContinueFromMaxId(long maxId) throws IOException {
+        SequenceGenerator generator = sequenceGenerator();
+        long seedOffset = seedOffset();
+        assertThat(seedOffset).isEqualTo(generator.allocationSize());
+
+        // tabel todos_seq: getNextValue membaca next_val lalu menambah allocationSize
+        long[] nextVal = {maxId + seedOffset};
+        AccessCallback table = new AccessCallback() {
+            @Override
+            public IntegralDataTypeHolder getNextValue() {
+                IntegralDataTypeHolder value = IdentifierGeneratorHelper.getIntegralDataTypeHolder(Long.class);
+                value.initialize(nextVal[0]);
+                nextVal[0] += generator.allocationSize();
+                return value;
+            }
+
+            @Override
+            public String getTenantIdentifier() {
+                return null;
+            }
+        };
+
+        PooledOptimizer optimizer = new PooledOptimizer(Long.class, generator.allocationSize());
+        optimizer.injectInitialValue(generator.initialValue());
+
+        // tiga blok berturut-turut
+        long[] ids = LongStream.range(0, generator.allocationSize() * 3L)
+                .map(i -> ((Number) optimizer.generate(table)).longValue())
+                .toArray();
+
+        assertThat(ids).containsExactly(LongStream.rangeClosed(maxId + 1, maxId + generator.allocationSize() * 3L).toArray());
+    }
+
+    private static SequenceGenerator sequenceGenerator() {
+        try {
+            return Todo.class.getDeclaredField("id").getAnnotation(SequenceGenerator.class);
+        } catch (NoSuchFieldException ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+
+    private static long seedOffset() throws IOException {
+        String migration = new ClassPathResource("db/migration/V3__todos_sequence.sql")
+                .getContentAsString(StandardCharsets.UTF_8);
+        Matcher matcher = SEED.matcher(migration);
+        assertThat(matcher.find()).as("seed todos_seq di V3").isTrue();
+        return Long.parseLong(matcher.group(1));
+    }
+}
@@ -0,0 +1,52 @@
+package com.myproject.todo_management.mapper;
+
+import com.myproject.todo_management.dto.RegisterDto;
+import com.myproject.todo_management.dto.TodoDto;
+import com.myproject.todo_management.entity.Todo;
+import com.myproject.todo_management.entity.User;
+import org.junit.jupiter.api.Test;
+import org.modelmapper.ModelMapper;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Mapper manual harus menghasilkan DTO yang sama dengan ModelMapper (yang digantikan), kecuali password
+class DtoMapperTest {
+
+    private final ModelMapper modelMapper = new ModelMapper();
+
+    @Test
+    void todoMapperMatchesModelMapper() {
+        Todo todo = MapperBenchmark.sampleTodo(42);
+
+        assertThat(TodoMapper.mapToTodoDto(todo))
+                .usingRecursiveComparison()
+                .isEqualTo(modelMapper.map(todo, TodoDto.class));
+    }
+
+    @Test
+    void mapToTodoIgnoresIdAndVersionFromRequest() {
+        TodoDto todoDto = new TodoDto(7L, "Title", "Description", true, "mallory", "mallory", 9L);
+
+        Todo todo = TodoMapper.mapToTodo(todoDto);
+
+        assertThat(todo.getId()).isNull();
+        assertThat(todo.getVersion()).isNull();
+        assertThat(todo.getCreatedBy()).isNull();
+        assertThat(todo.getTitle()).isEqualTo("Title");
+        assertThat(todo.getDescription()).isEqualTo("Description");
+        assertThat(todo.isCompleted()).isTrue();
+    }
+
+    @Test
+    void userMapperMatchesModelMapperWithoutPassword() {
+        User user = MapperBenchmark.sampleUser(42);
+
+        RegisterDto registerDto = UserMapper.mapToRegisterDto(user);
+
+        assertThat(registerDto.getPassword()).isNull();
+        assertThat(registerDto)
+                .usingRecursiveComparison()
+                .ignoringFields("password")
+                .isEqualTo(modelMapper.map(user, RegisterDto.class));
+    }
+}
@@ -0,0 +1,126 @@
+package com.myproject.todo_management.mapper;
+
+import com.myproject.todo_management.dto.RegisterDto;
+import com.myproject.todo_management.dto.TodoDto;
+import com.myproject.todo_management.entity.Todo;
+import com.myproject.todo_management.entity.User;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.modelmapper.ModelMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.results.RunResult;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Mapper manual vs ModelMapper (cara lama di service) untuk satu halaman response (100 todo / 100 user).
+// Benchmark tidak jalan di build biasa: mvn test -Dtest=MapperBenchmark -Dbenchmark=true
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MapperBenchmark {
+
+    private static final int PAGE_SIZE = 100;
+
+    private final ModelMapper modelMapper = new ModelMapper();
+
+    private List<Todo> todos;
+
+    private List<User> users;
+
+    @Setup
+    public void setUp() {
+        todos = LongStream.rangeClosed(1, PAGE_SIZE).mapToObj(MapperBenchmark::sampleTodo).toList();
+        users = LongStream.rangeClosed(1, PAGE_SIZE).mapToObj(MapperBenchmark::sampleUser).toList();
+    }
+
+    @Benchmark
+    public List<TodoDto> todoModelMapper() {
+        return todos.stream().map(todo -> modelMapper.map(todo, TodoDto.class)).toList();
+    }
+
+    @Benchmark
+    public List<TodoDto> todoMapper() {
+        return todos.stream().map(TodoMapper::mapToTodoDto).toList();
+    }
+
+    @Benchmark
+    public List<RegisterDto> userModelMapper() {
+        return users.stream().map(user -> modelMapper.map(user, RegisterDto.class)).toList();
+    }
+
+    @Benchmark
+    public List<RegisterDto> userMapper() {
+        return users.stream().map(UserMapper::mapToRegisterDto).toList();
+    }
+
+    @Test
+    @EnabledIfSystemProperty(named = "benchmark", matches = "true")
+    void handWrittenMappersAreFasterThanModelMapper() throws RunnerException {
+        Collection<RunResult> results = new Runner(new OptionsBuilder()
+                .include(MapperBenchmark.class.getName() + "\\.")
+                .build()).run();
+
+        // nama method benchmark -> rata-rata mikrodetik per halaman
+        Map<String, Double> scores = results.stream().collect(Collectors.toMap(
+                result -> result.getParams().getBenchmark().substring(result.getParams().getBenchmark().lastIndexOf('.') + 1),
+                result -> result.getPrimaryResult().getScore()
+        ));
+
+        assertThat(scores.get("todoMapper")).isLessThan(scores.get("todoModelMapper"));
+        assertThat(scores.get("userMapper")).isLessThan(scores.get("userModelMapper"));
+    }
+
+    static Todo sampleTodo(long id) {
+        Todo todo = new Todo();
+        todo.setId(id);
+        todo.setTitle("Todo " + id);
+        todo.setDescription("Description of todo " + id);
+        todo.setCompleted(id % 2 == 0);
+        todo.setCreatedBy("user" + id % 10);
+        todo.setUpdatedBy("admin");
+        todo.setTimeCreated(LocalDateTime.of(2025, 1, 1, 0, 0).plusMinutes(id));
+        todo.setTimeUpdated(LocalDateTime.of(2025, 1, 2, 0, 0).plusMinutes(id));
+        todo.setVersion(id % 5);
+        return todo;
+    }
+
+    static User sampleUser(long id) {
+        User user = new User();
+        user.setId(id);
+        user.setName("User " + id);
+        user.setUsername("user" + id);
+        user.setEmail("user" + id + "@example.com");
+        user.setPassword("$2a$10$abcdefghijklmnopqrstuv");
+        user.setBirthDate(LocalDate.of(1990, 1, 1).plusDays(id));
+        user.setJobTitle("Engineer");
+        user.setLocation("Jakarta");
+        user.setProfilePhoto("/uploads/photos/user" + id + ".png");
+        user.setCreatedBy("system");
+        user.setVersion(id % 3);
+        return user;
+    }
+}
@@ -0,0 +1,172 @@
+package com.myproject.todo_management.respository;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.testcontainers.containers.MySQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// EXPLAIN query utama todo & user di MySQL asli (schema dari migration Flyway), index harus dipakai
+// dan tidak ada full table scan / filesort. Di-skip kalau Docker tidak tersedia.
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Testcontainers(disabledWithoutDocker = true)
+// tanpa transaksi test: data seed harus commit supaya ANALYZE TABLE menghitung statistiknya
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class TodoIndexExplainTest {
+
+    private static final int USERS = 2000;
+
+    private static final int TODO_OWNERS = 50;
+
+    private static final int TODOS_PER_OWNER = 100;
+
+    @Container
+    @ServiceConnection
+    static MySQLContainer<?> mysql = new MySQLContainer<>("mysql:8.0");
+
+    // container dipakai semua test di class ini, cukup di-seed sekali
+    private static boolean seeded;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void seed() {
+        if (seeded) return;
+
+        List<Object[]> users = new ArrayList<>();
+        for (int i = 1; i <= USERS; i++) {
+            users.add(new Object[]{"User " + i, "user" + i, "user" + i + "@example.com", "secret", LocalDate.of(1990, 1, 1)});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO users (name, username, email, password, birth_date, job_title, location) " +
+                "VALUES (?, ?, ?, ?, ?, 'Engineer', 'Jakarta')", users);
+
+        LocalDateTime start = LocalDateTime.of(2025, 1, 1, 0, 0);
+        List<Object[]> todos = new ArrayList<>();
+        for (int owner = 1; owner <= TODO_OWNERS; owner++) {
+            for (int i = 0; i < TODOS_PER_OWNER; i++) {
+                Timestamp time = Timestamp.valueOf(start.plusMinutes((long) owner * TODOS_PER_OWNER + i));
+                todos.add(new Object[]{"Todo " + i, "Description " + i, i % 3 == 0, time, time, "user" + owner});
+            }
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO todos (title, description, completed, user_id, created_by, time_created, time_updated) " +
+                "SELECT ?, ?, ?, id, username, ?, ? FROM users WHERE username = ?", todos);
+
+        jdbcTemplate.execute("ANALYZE TABLE users, todos");
+        seeded = true;
+    }
+
+    @Test
+    void todosByOwnerUseCreatedByIdIndex() {
+        Map<String, Object> plan = explain("SELECT id, title FROM todos WHERE created_by = ? ORDER BY id LIMIT 20", "user7");
+
+        assertUsesIndex(plan, "idx_todos_created_by_id");
+    }
+
+    @Test
+    void todosByOwnerKeysetUseCreatedByIdIndex() {
+        Map<String, Object> plan = explain("SELECT id, title FROM todos WHERE created_by = ? AND id > ? ORDER BY id LIMIT 20",
+                "user7", 650);
+
+        assertUsesIndex(plan, "idx_todos_created_by_id");
+    }
+
+    @Test
+    void titleExistsCheckUsesUserIdTitleIndex() {
+        Map<String, Object> plan = explain("SELECT id FROM todos WHERE title = ? AND user_id = ? LIMIT 1", "Todo 5", 7);
+
+        assertUsesIndex(plan, "idx_todos_user_id_title");
+    }
+
+    @Test
+    void todosByUserIdUseUserIdTitleIndex() {
+        Map<String, Object> plan = explain("SELECT id FROM todos WHERE user_id = ?", 7);
+
+        assertUsesIndex(plan, "idx_todos_user_id_title");
+    }
+
+    @Test
+    void userByUsernameOrEmailMergesUniqueIndexes() {
+        Map<String, Object> plan = explain("SELECT id FROM users WHERE username = ? OR email = ?",
+                "user7", "user7@example.com");
+
+        assertThat(plan.get("type")).as("plan: %s", plan).isEqualTo("index_merge");
+        assertThat(String.valueOf(plan.get("key"))).contains("uk_users_username", "uk_users_email");
+    }
+
+    @Test
+    void deltaSyncUsesCreatedByTimeUpdatedIndex() {
+        // watermark di tengah data user7: range (time_updated, id), urutan dari index tanpa filesort
+        Timestamp since = Timestamp.valueOf(LocalDateTime.of(2025, 1, 1, 0, 0).plusMinutes(750));
+        Timestamp until = Timestamp.valueOf(LocalDateTime.of(2025, 1, 2, 0, 0));
+        Map<String, Object> plan = explain("SELECT id, title FROM todos WHERE created_by = ? AND time_updated <= ? " +
+                        "AND (time_updated > ? OR (time_updated = ? AND id > ?)) ORDER BY time_updated, id LIMIT 101",
+                "user7", until, since, since, 650);
+
+        assertUsesIndex(plan, "idx_todos_created_by_time_updated");
+    }
+
+    @Test
+    void completedFilterUsesCreatedByCompletedIdIndex() {
+        Map<String, Object> plan = explain("SELECT id, title FROM todos WHERE created_by = ? AND completed = ? ORDER BY id LIMIT 20",
+                "user7", true);
+
+        assertUsesIndex(plan, "idx_todos_created_by_completed_id");
+    }
+
+    @Test
+    void sortByTimeCreatedUsesCreatedByTimeCreatedIndex() {
+        // sort desc + id tie breaker: index dibaca mundur
+        Map<String, Object> plan = explain("SELECT id, title FROM todos WHERE created_by = ? AND time_created >= ? " +
+                        "ORDER BY time_created DESC, id DESC LIMIT 20",
+                "user7", Timestamp.valueOf(LocalDateTime.of(2025, 1, 1, 12, 0)));
+
+        assertUsesIndex(plan, "idx_todos_created_by_time_created");
+    }
+
+    @Test
+    void adminSortByTimeUpdatedUsesTimeUpdatedIdIndex() {
+        Map<String, Object> plan = explain("SELECT id, title FROM todos ORDER BY time_updated DESC, id DESC LIMIT 20");
+
+        assertUsesIndex(plan, "idx_todos_time_updated_id");
+    }
+
+    @Test
+    void statsGroupByIsCoveredByCreatedByCompletedIndex() {
+        Map<String, Object> plan = explain("SELECT created_by, COUNT(*), SUM(CASE WHEN completed = TRUE THEN 1 ELSE 0 END) " +
+                "FROM todos GROUP BY created_by");
+
+        assertUsesIndex(plan, "idx_todos_created_by_completed_id");
+        // dibaca dari index saja, tanpa tabel sementara untuk GROUP BY
+        assertThat(String.valueOf(plan.get("Extra"))).as("plan: %s", plan)
+                .contains("Using index")
+                .doesNotContain("Using temporary");
+    }
+
+    private Map<String, Object> explain(String sql, Object... args) {
+        return jdbcTemplate.queryForList("EXPLAIN " + sql, args).get(0);
+    }
+
+    private void assertUsesIndex(Map<String, Object> plan, String index) {
+        assertThat(plan.get("key")).as("plan: %s", plan).isEqualTo(index);
+        assertThat(plan.get("type")).as("plan: %s", plan).isNotEqualTo("ALL");
+        assertThat(String.valueOf(plan.get("Extra"))).as("plan: %s", plan).doesNotContain("Using filesort");
+    }
+}
@@ -0,0 +1,197 @@
+package com.myproject.todo_management.respository;
+
+import com.myproject.todo_management.dto.TodoVersionDto;
+import com.myproject.todo_management.entity.Todo;
+import com.myproject.todo_management.entity.TodoTombstone;
+import com.myproject.todo_management.entity.User;
+import com.myproject.todo_management.utils.SyncWatermark;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.data.domain.Limit;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.testcontainers.containers.MySQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
+
+// Query write / delta sync TodoRepository di MySQL asli (schema dari migration Flyway), setiap test di-rollback.
+// Di-skip kalau Docker tidak tersedia.
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Testcontainers(disabledWithoutDocker = true)
+class TodoRepositoryTest {
+
+    @Container
+    @ServiceConnection
+    static MySQLContainer<?> mysql = new MySQLContainer<>("mysql:8.0");
+
+    @Autowired
+    private TodoRepository todoRepository;
+
+    @Autowired
+    private TodoTombstoneRepository todoTombstoneRepository;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Test
+    void bulkCompleteChangesOnlyOwnTodosWithDifferentStatusAndBumpsVersion() {
+        User alice = persistUser("alice");
+        User bob = persistUser("bob");
+        Todo open = persistTodo(alice, "Open", false);
+        Todo done = persistTodo(alice, "Done", true);
+        Todo bobs = persistTodo(bob, "Bob", false);
+        List<Long> ids = List.of(open.getId(), done.getId(), bobs.getId());
+        entityManager.clear();
+
+        List<TodoVersionDto> changing = todoRepository.findChangingByCreatedByForUpdate(ids, "alice", true);
+        int affected = todoRepository.updateCompletedByIdsAndCreatedBy(ids, "alice", true, "alice", LocalDateTime.now());
+        entityManager.clear();
+
+        assertThat(changing).extracting(TodoVersionDto::getId, TodoVersionDto::getVersion)
+                .containsExactly(tuple(open.getId(), 0L));
+        assertThat(affected).isEqualTo(1);
+
+        Todo updated = entityManager.find(Todo.class, open.getId());
+        assertThat(updated.isCompleted()).isTrue();
+        assertThat(updated.getVersion()).isEqualTo(1L);
+        assertThat(updated.getUpdatedBy()).isEqualTo("alice");
+        assertThat(entityManager.find(Todo.class, done.getId()).getVersion()).isZero();
+        assertThat(entityManager.find(Todo.class, bobs.getId()).isCompleted()).isFalse();
+    }
+
+    @Test
+    void adminBulkInCompleteChangesTodosOfAllOwners() {
+        User alice = persistUser("alice");
+        User bob = persistUser("bob");
+        Todo alices = persistTodo(alice, "Alice", true);
+        Todo bobs = persistTodo(bob, "Bob", true);
+        Todo open = persistTodo(bob, "Open", false);
+        List<Long> ids = List.of(alices.getId(), bobs.getId(), open.getId());
+        entityManager.clear();
+
+        List<TodoVersionDto> changing = todoRepository.findChangingForUpdate(ids, false);
+        int affected = todoRepository.updateCompletedByIds(ids, false, "admin", LocalDateTime.now());
+        entityManager.clear();
+
+        assertThat(changing).extracting(TodoVersionDto::getCreatedBy).containsExactlyInAnyOrder("alice", "bob");
+        assertThat(affected).isEqualTo(2);
+        assertThat(entityManager.find(Todo.class, bobs.getId()).getVersion()).isEqualTo(1L);
+        assertThat(entityManager.find(Todo.class, open.getId()).getVersion()).isZero();
+    }
+
+    @Test
+    void updateBumpsVersionAndStaleCopyIsRejected() {
+        User alice = persistUser("alice");
+        Todo todo = persistTodo(alice, "Title", false);
+        entityManager.clear();
+
+        Todo current = todoRepository.findById(todo.getId()).orElseThrow();
+        current.setTitle("Changed");
+        todoRepository.saveAndFlush(current);
+        assertThat(current.getVersion()).isEqualTo(1L);
+        entityManager.clear();
+
+        // client lain masih memegang versi 0
+        Todo stale = new Todo();
+        stale.setId(todo.getId());
+        stale.setTitle("Stale");
+        stale.setDescription("Stale");
+        stale.setUser(alice);
+        stale.setCreatedBy("alice");
+        stale.setVersion(0L);
+
+        assertThatThrownBy(() -> todoRepository.saveAndFlush(stale))
+                .isInstanceOf(ObjectOptimisticLockingFailureException.class);
+    }
+
+    @Test
+    void tombstonesForDeletedUserCoverEveryTodoOfTheUser() {
+        User alice = persistUser("alice");
+        User bob = persistUser("bob");
+        Todo first = persistTodo(alice, "First", false);
+        Todo second = persistTodo(alice, "Second", true);
+        persistTodo(bob, "Bob", false);
+        entityManager.clear();
+
+        List<TodoVersionDto> todos = todoRepository.findByUserIdForUpdate(alice.getId());
+        todoRepository.deleteByUserId(alice.getId());
+        LocalDateTime deletedAt = LocalDateTime.now().withNano(0);
+        todoTombstoneRepository.saveAllAndFlush(todos.stream()
+                .map(todo -> new TodoTombstone(todo.getId(), todo.getCreatedBy(), deletedAt))
+                .toList());
+
+        assertThat(todos).extracting(TodoVersionDto::getId).containsExactlyInAnyOrder(first.getId(), second.getId());
+        // (since, until]: tombstone tepat di "until" ikut, tepat di "since" sudah terkirim sebelumnya
+        assertThat(todoTombstoneRepository.findTodoIdsByCreatedByDeletedBetween("alice", deletedAt.minusSeconds(1), deletedAt))
+                .containsExactlyInAnyOrder(first.getId(), second.getId());
+        assertThat(todoTombstoneRepository.findTodoIdsByCreatedByDeletedBetween("alice", deletedAt, deletedAt.plusSeconds(1)))
+                .isEmpty();
+        assertThat(todoTombstoneRepository.findTodoIdsByCreatedByDeletedBetween("bob", deletedAt.minusSeconds(1), deletedAt))
+                .isEmpty();
+        assertThat(todoTombstoneRepository.findTodoIdsDeletedBetween(deletedAt.minusSeconds(1), deletedAt)).hasSize(2);
+    }
+
+    @Test
+    void findChangedByCreatedByPagesByTimeUpdatedThenId() {
+        User alice = persistUser("alice");
+        User bob = persistUser("bob");
+        Todo first = persistTodo(alice, "First", false);
+        Todo second = persistTodo(alice, "Second", false);
+        Todo third = persistTodo(alice, "Third", false);
+        persistTodo(bob, "Bob", false);
+        // semua todo alice punya time_updated yang sama: urutan ditentukan id
+        LocalDateTime time = LocalDateTime.now().minusMinutes(1).withNano(0);
+        entityManager.getEntityManager()
+                .createNativeQuery("UPDATE todos SET time_updated = :time WHERE created_by = 'alice'")
+                .setParameter("time", time)
+                .executeUpdate();
+        entityManager.clear();
+        LocalDateTime until = LocalDateTime.now();
+
+        List<Todo> firstPage = todoRepository.findChangedByCreatedBy("alice", SyncWatermark.INITIAL.time(), 0L, until, Limit.of(2));
+        Todo last = firstPage.get(1);
+        List<Todo> secondPage = todoRepository.findChangedByCreatedBy("alice", last.getTimeUpdated(), last.getId(), until, Limit.of(2));
+
+        assertThat(firstPage).extracting(Todo::getId).containsExactly(first.getId(), second.getId());
+        assertThat(secondPage).extracting(Todo::getId).containsExactly(third.getId());
+        // halaman terakhir (id = Long.MAX_VALUE) tidak mengulang todo yang sudah dikirim
+        assertThat(todoRepository.findChangedByCreatedBy("alice", time, Long.MAX_VALUE, until, Limit.of(2))).isEmpty();
+        // perubahan setelah "until" menunggu sync berikutnya
+        assertThat(todoRepository.findChangedByCreatedBy("alice", SyncWatermark.INITIAL.time(), 0L, time.minusSeconds(1), Limit.of(2)))
+                .isEmpty();
+    }
+
+    private User persistUser(String username) {
+        User user = new User();
+        user.setName(username);
+        user.setUsername(username);
+        user.setEmail(username + "@example.com");
+        user.setPassword("secret");
+        user.setBirthDate(LocalDate.of(1990, 1, 1));
+        user.setJobTitle("Engineer");
+        user.setLocation("Jakarta");
+        return entityManager.persist(user);
+    }
+
+    private Todo persistTodo(User user, String title, boolean completed) {
+        Todo todo = new Todo();
+        todo.setTitle(title);
+        todo.setDescription(title + " description");
+        todo.setCompleted(completed);
+        todo.setUser(user);
+        todo.setCreatedBy(user.getUsername());
+        return entityManager.persistAndFlush(todo);
+    }
+}
@@ -0,0 +1,80 @@
+package com.myproject.todo_management.respository;
+
+import com.myproject.todo_management.entity.User;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.testcontainers.containers.MySQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Query login UserRepository di MySQL asli (schema dari migration Flyway), setiap test di-rollback.
+// Di-skip kalau Docker tidak tersedia.
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Testcontainers(disabledWithoutDocker = true)
+class UserRepositoryTest {
+
+    @Container
+    @ServiceConnection
+    static MySQLContainer<?> mysql = new MySQLContainer<>("mysql:8.0");
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Test
+    void loginAuditDoesNotBumpVersion() {
+        User alice = persistUser("alice");
+        LocalDateTime now = LocalDateTime.of(2026, 1, 1, 10, 0);
+        entityManager.clear();
+
+        int affected = userRepository.updateLoginAudit(alice.getId(), "alice", now);
+        entityManager.clear();
+
+        User updated = entityManager.find(User.class, alice.getId());
+        assertThat(affected).isEqualTo(1);
+        assertThat(updated.getUpdatedAt()).isEqualTo(now);
+        assertThat(updated.getUpdatedBy()).isEqualTo("alice");
+        assertThat(updated.getVersion()).isEqualTo(alice.getVersion());
+    }
+
+    @Test
+    void rehashOnlyReplacesUnchangedHash() {
+        User alice = persistUser("alice");
+        entityManager.clear();
+
+        // updatePassword commit di antara login membaca hash dan rehash
+        int stale = userRepository.rehashPassword(alice.getId(), "other-hash", "rehashed");
+        int affected = userRepository.rehashPassword(alice.getId(), "secret", "rehashed");
+        entityManager.clear();
+
+        User updated = entityManager.find(User.class, alice.getId());
+        assertThat(stale).isZero();
+        assertThat(affected).isEqualTo(1);
+        assertThat(updated.getPassword()).isEqualTo("rehashed");
+        assertThat(updated.getVersion()).isEqualTo(alice.getVersion());
+    }
+
+    private User persistUser(String username) {
+        User user = new User();
+        user.setName(username);
+        user.setUsername(username);
+        user.setEmail(username + "@example.com");
+        user.setPassword("secret");
+        user.setBirthDate(LocalDate.of(1990, 1, 1));
+        user.setJobTitle("Engineer");
+        user.setLocation("Jakarta");
+        return entityManager.persistAndFlush(user);
+    }
+}
@@ -0,0 +1,178 @@
+package com.myproject.todo_management.search;
+
+import com.myproject.todo_management.dto.TodoDto;
+import com.myproject.todo_management.respository.TodoRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Limit;
+
+import java.util.List;
+import java.util.Set;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+// Tanpa transaksi aktif, *AfterCommit langsung dijalankan
+class TodoSearchIndexTest {
+
+    private final TodoRepository todoRepository = mock(TodoRepository.class);
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private final TodoSearchIndex index = new TodoSearchIndex(todoRepository, meterRegistry);
+
+    @Test
+    void everyWordMustMatchAsPrefixIgnoringCaseAndPunctuation() {
+        index.putAfterCommit(todo(1L, "alice", "Buy milk", "At the Supermarket"));
+        index.putAfterCommit(todo(2L, "alice", "Buy bread", "Bakery"));
+        index.putAfterCommit(todo(3L, "alice", "Milk-shake", ""));
+
+        assertThat(ids(index.search("alice", "BUY mil", 10))).containsExactly(1L);
+        // terbaru dulu
+        assertThat(ids(index.search("alice", "milk", 10))).containsExactly(3L, 1L);
+        assertThat(ids(index.search("alice", "super", 10))).containsExactly(1L);
+        assertThat(ids(index.search("alice", "shake, milk!", 10))).containsExactly(3L);
+        assertThat(index.search("alice", "buy cheese", 10)).isEmpty();
+        assertThat(index.search("alice", " ,. ", 10)).isEmpty();
+        assertThat(ids(index.search("alice", "buy", 1))).containsExactly(2L);
+    }
+
+    @Test
+    void searchIsLimitedToOwnerUnlessAdmin() {
+        index.putAfterCommit(todo(1L, "alice", "Report", ""));
+        index.putAfterCommit(todo(2L, "bob", "Report draft", ""));
+
+        assertThat(ids(index.search("alice", "report", 10))).containsExactly(1L);
+        assertThat(ids(index.search("bob", "report", 10))).containsExactly(2L);
+        assertThat(index.search("carol", "report", 10)).isEmpty();
+        // owner = null -> ADMIN
+        assertThat(ids(index.search(null, "report", 10))).containsExactly(2L, 1L);
+    }
+
+    @Test
+    void updateReplacesTokensAndRemoveDropsTodo() {
+        index.putAfterCommit(todo(1L, "alice", "Old title", "", 0L));
+        index.putAfterCommit(todo(1L, "alice", "New title", "", 1L));
+
+        assertThat(index.search("alice", "old", 10)).isEmpty();
+        assertThat(ids(index.search("alice", "new", 10))).containsExactly(1L);
+
+        index.removeAfterCommit(1L, "alice");
+
+        assertThat(index.search("alice", "title", 10)).isEmpty();
+        assertThat(documents()).isZero();
+    }
+
+    @Test
+    void markCompletedOnlyChangesTodosOfOwner() {
+        index.putAfterCommit(todo(1L, "alice", "Alice", "", 2L));
+        index.putAfterCommit(todo(2L, "bob", "Bob", "", 0L));
+
+        index.markCompletedAfterCommit(Set.of(1L, 2L, 99L), "alice", true, "alice");
+
+        TodoDto alices = index.search("alice", "alice", 10).get(0);
+        assertThat(alices.isCompleted()).isTrue();
+        assertThat(alices.getVersion()).isEqualTo(3L);
+        assertThat(alices.getUpdatedBy()).isEqualTo("alice");
+        assertThat(index.search("bob", "bob", 10).get(0).isCompleted()).isFalse();
+
+        // ADMIN, status yang sudah sama tidak menaikkan version
+        index.markCompletedAfterCommit(Set.of(1L, 2L), null, true, "admin");
+
+        assertThat(index.search("alice", "alice", 10).get(0).getVersion()).isEqualTo(3L);
+        TodoDto bobs = index.search("bob", "bob", 10).get(0);
+        assertThat(bobs.isCompleted()).isTrue();
+        assertThat(bobs.getVersion()).isEqualTo(1L);
+        assertThat(bobs.getUpdatedBy()).isEqualTo("admin");
+    }
+
+    @Test
+    void rebuildReadsAllBatchesThenBecomesReady() {
+        List<TodoDto> firstBatch = LongStream.rangeClosed(1, 5000)
+                .mapToObj(id -> todo(id, "user" + id % 7, "Todo " + id, ""))
+                .toList();
+        when(todoRepository.findAllTodoDtoAfter(0L, Limit.of(5000))).thenReturn(firstBatch);
+        when(todoRepository.findAllTodoDtoAfter(5000L, Limit.of(5000)))
+                .thenReturn(List.of(todo(5001L, "alice", "Last", "")));
+
+        assertThat(index.isReady()).isFalse();
+
+        index.rebuild();
+
+        assertThat(index.isReady()).isTrue();
+        assertThat(documents()).isEqualTo(5001);
+        assertThat(ids(index.search("alice", "last", 10))).containsExactly(5001L);
+    }
+
+    @Test
+    void todoDeletedDuringRebuildIsNotAddedBack() {
+        // batch dibaca sebelum delete commit, tapi baru di-index sesudahnya
+        when(todoRepository.findAllTodoDtoAfter(eq(0L), eq(Limit.of(5000)))).thenAnswer(invocation -> {
+            index.removeAfterCommit(1L, "alice");
+            return List.of(todo(1L, "alice", "Deleted", ""), todo(2L, "alice", "Kept", ""));
+        });
+
+        index.rebuild();
+
+        assertThat(index.search("alice", "deleted", 10)).isEmpty();
+        assertThat(ids(index.search("alice", "kept", 10))).containsExactly(2L);
+    }
+
+    @Test
+    void ownerDeletedDuringRebuildIsNotAddedBack() {
+        when(todoRepository.findAllTodoDtoAfter(eq(0L), eq(Limit.of(5000)))).thenAnswer(invocation -> {
+            index.removeOwnerAfterCommit("bob");
+            return List.of(todo(1L, "alice", "Report", ""), todo(2L, "bob", "Report", ""));
+        });
+
+        index.rebuild();
+
+        assertThat(ids(index.search(null, "report", 10))).containsExactly(1L);
+        assertThat(documents()).isEqualTo(1);
+    }
+
+    @Test
+    void rebuildDoesNotOverwriteNewerUpdate() {
+        when(todoRepository.findAllTodoDtoAfter(eq(0L), eq(Limit.of(5000)))).thenAnswer(invocation -> {
+            index.putAfterCommit(todo(1L, "alice", "New title", "", 2L));
+            return List.of(todo(1L, "alice", "Old title", "", 1L));
+        });
+
+        index.rebuild();
+
+        assertThat(index.search("alice", "old", 10)).isEmpty();
+        assertThat(ids(index.search("alice", "new", 10))).containsExactly(1L);
+    }
+
+    @Test
+    void rebuildRetriesFailedBatch() {
+        when(todoRepository.findAllTodoDtoAfter(anyLong(), eq(Limit.of(5000))))
+                .thenThrow(new IllegalStateException("database not ready"))
+                .thenReturn(List.of(todo(1L, "alice", "Todo", "")));
+
+        index.rebuild();
+
+        assertThat(index.isReady()).isTrue();
+        assertThat(ids(index.search("alice", "todo", 10))).containsExactly(1L);
+    }
+
+    private double documents() {
+        return meterRegistry.get("todo.search.documents").gauge().value();
+    }
+
+    private static List<Long> ids(List<TodoDto> todos) {
+        return todos.stream().map(TodoDto::getId).toList();
+    }
+
+    private static TodoDto todo(Long id, String owner, String title, String description) {
+        return todo(id, owner, title, description, 0L);
+    }
+
+    private static TodoDto todo(Long id, String owner, String title, String description, Long version) {
+        return new TodoDto(id, title, description, false, owner, owner, version);
+    }
+}
@@ -0,0 +1,148 @@
+package com.myproject.todo_management.security;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ConcurrencyLimiterTest {
+
+    // sama dengan jumlah shard di ConcurrencyLimiter
+    private static final int SHARDS = 16;
+
+    @Test
+    void rejectsAboveLimitUntilReleased() {
+        ConcurrencyLimiter limiter = new ConcurrencyLimiter(1000);
+
+        AtomicInteger first = limiter.tryAcquire("alice", 2);
+        AtomicInteger second = limiter.tryAcquire("alice", 2);
+
+        assertThat(first).isNotNull();
+        assertThat(second).isSameAs(first);
+        assertThat(limiter.tryAcquire("alice", 2)).isNull();
+        assertThat(limiter.tryAcquire("bob", 2)).isNotNull();
+
+        first.decrementAndGet();
+
+        assertThat(limiter.tryAcquire("alice", 2)).isNotNull();
+    }
+
+    @Test
+    void evictionKeepsCountersWithRequestsInFlight() {
+        // 1 key per shard
+        ConcurrencyLimiter limiter = new ConcurrencyLimiter(SHARDS);
+        List<String> sameShard = keysInSameShardAs("alice", 1);
+
+        AtomicInteger alice = limiter.tryAcquire("alice", 1);
+        // shard penuh, tapi counter alice masih punya request aktif jadi tidak dibuang
+        assertThat(limiter.tryAcquire(sameShard.get(0), 1)).isNotNull();
+
+        assertThat(limiter.tryAcquire("alice", 1)).isNull();
+
+        alice.decrementAndGet();
+        assertThat(limiter.tryAcquire("alice", 1)).isNotNull();
+    }
+
+    @Test
+    void neverExceedsLimitUnderContention() throws Exception {
+        ConcurrencyLimiter limiter = new ConcurrencyLimiter(1000);
+        int limit = 4;
+        AtomicInteger active = new AtomicInteger();
+        AtomicInteger maxActive = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+
+        ExecutorService executor = Executors.newFixedThreadPool(16);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < 16; t++) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    for (int i = 0; i < 2000; i++) {
+                        AtomicInteger inFlight = limiter.tryAcquire("alice", limit);
+                        if (inFlight == null) continue;
+
+                        maxActive.accumulateAndGet(active.incrementAndGet(), Math::max);
+                        active.decrementAndGet();
+                        inFlight.decrementAndGet();
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertThat(maxActive.get()).isBetween(1, limit);
+        // semua request selesai: counter kembali ke 0
+        assertThat(limiter.tryAcquire("alice", 1)).isNotNull();
+    }
+
+    @Test
+    void evictionDoesNotOrphanCounterBeingAcquired() throws Exception {
+        // 1 key per shard: setiap key lain di shard yang sama memicu eviction counter alice saat 0
+        ConcurrencyLimiter limiter = new ConcurrencyLimiter(SHARDS);
+        List<String> sameShard = keysInSameShardAs("alice", 8);
+        int limit = 1;
+        AtomicInteger active = new AtomicInteger();
+        AtomicInteger maxActive = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < 4; t++) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    for (int i = 0; i < 5000; i++) {
+                        AtomicInteger inFlight = limiter.tryAcquire("alice", limit);
+                        if (inFlight == null) continue;
+
+                        maxActive.accumulateAndGet(active.incrementAndGet(), Math::max);
+                        active.decrementAndGet();
+                        inFlight.decrementAndGet();
+                    }
+                    return null;
+                }));
+            }
+            for (String key : sameShard.subList(0, 4)) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    for (int i = 0; i < 5000; i++) {
+                        AtomicInteger inFlight = limiter.tryAcquire(key, 1);
+                        if (inFlight != null) inFlight.decrementAndGet();
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertThat(maxActive.get()).isBetween(1, limit);
+    }
+
+    private static List<String> keysInSameShardAs(String key, int count) {
+        int shard = (key.hashCode() & 0x7fffffff) % SHARDS;
+        return IntStream.iterate(0, i -> i + 1)
+                .mapToObj(i -> "user" + i)
+                .filter(candidate -> (candidate.hashCode() & 0x7fffffff) % SHARDS == shard)
+                .limit(count)
+                .toList();
+    }
+}
@@ -0,0 +1,70 @@
+package com.myproject.todo_management.security;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.Date;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class JwtTokenCacheTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    void cachedClaimsAreReturnedUntilExpired() {
+        JwtTokenCache cache = new JwtTokenCache(10, meterRegistry);
+        Claims valid = claims(60_000);
+
+        cache.put("valid", valid);
+        cache.put("expired", claims(-1_000));
+
+        assertThat(cache.get("valid")).isSameAs(valid);
+        assertThat(cache.get("expired")).isNull();
+        assertThat(cache.get("unknown")).isNull();
+    }
+
+    @Test
+    void fullCacheEvictsLeastRecentlyUsedTokensInBatch() throws InterruptedException {
+        JwtTokenCache cache = new JwtTokenCache(8, meterRegistry);
+        for (int i = 0; i < 8; i++) {
+            cache.put("token-" + i, claims(60_000));
+            Thread.sleep(1);
+        }
+        // token-0 paling lama dimasukkan tapi baru saja dipakai
+        cache.get("token-0");
+
+        cache.put("token-8", claims(60_000));
+
+        assertThat(cache.get("token-0")).isNotNull();
+        assertThat(cache.get("token-1")).isNull();
+        assertThat(cache.get("token-2")).isNotNull();
+        assertThat(cache.get("token-8")).isNotNull();
+        assertThat(meterRegistry.get("jwt.token.cache.size").gauge().value()).isEqualTo(8);
+    }
+
+    @Test
+    void expiredTokensAreEvictedBeforeActiveOnes() {
+        JwtTokenCache cache = new JwtTokenCache(4, meterRegistry);
+        cache.put("expired", claims(-1_000));
+        cache.put("a", claims(60_000));
+        cache.put("b", claims(60_000));
+        cache.put("c", claims(60_000));
+
+        cache.put("d", claims(60_000));
+
+        assertThat(cache.get("a")).isNotNull();
+        assertThat(cache.get("b")).isNotNull();
+        assertThat(cache.get("c")).isNotNull();
+        assertThat(cache.get("d")).isNotNull();
+    }
+
+    private static Claims claims(long expiresInMillis) {
+        return Jwts.claims()
+                .subject("alice")
+                .expiration(new Date(System.currentTimeMillis() + expiresInMillis))
+                .build();
+    }
+}
@@ -0,0 +1,72 @@
+package com.myproject.todo_management.security;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LoginRateLimiterTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    // IP: 2 request per menit, username: 3 login gagal per menit
+    private final LoginRateLimiter limiter = new LoginRateLimiter(2, 2, 3, 3, 1000, meterRegistry);
+
+    @Test
+    void ipLimitCountsEveryRequest() {
+        assertThat(limiter.tryAcquireIp("10.0.0.1")).isTrue();
+        assertThat(limiter.tryAcquireIp("10.0.0.1")).isTrue();
+        assertThat(limiter.tryAcquireIp("10.0.0.1")).isFalse();
+        assertThat(limiter.tryAcquireIp("10.0.0.2")).isTrue();
+
+        assertThat(rejected("ip")).isEqualTo(1);
+    }
+
+    @Test
+    void successfulLoginsNeverLockUsername() {
+        for (int i = 0; i < 20; i++) {
+            assertThat(limiter.tryAcquireUsername("alice")).isTrue();
+            limiter.refundUsername("alice");
+        }
+        assertThat(rejected("username")).isZero();
+    }
+
+    @Test
+    void failedLoginsLockUsernameCaseInsensitively() {
+        assertThat(limiter.tryAcquireUsername("Alice")).isTrue();
+        assertThat(limiter.tryAcquireUsername("ALICE")).isTrue();
+        assertThat(limiter.tryAcquireUsername("alice")).isTrue();
+
+        assertThat(limiter.tryAcquireUsername("aLiCe")).isFalse();
+        assertThat(limiter.tryAcquireUsername("bob")).isTrue();
+        assertThat(limiter.getUsernameRetryAfterSeconds()).isEqualTo(20);
+        assertThat(rejected("username")).isEqualTo(1);
+    }
+
+    @Test
+    void concurrentAttemptsAreLimitedBeforeAnyFails() {
+        // 3 percobaan paralel yang belum selesai (BCrypt masih jalan) sudah menghabiskan kuota
+        for (int i = 0; i < 3; i++) {
+            assertThat(limiter.tryAcquireUsername("alice")).isTrue();
+        }
+
+        assertThat(limiter.tryAcquireUsername("alice")).isFalse();
+
+        // salah satu ternyata benar: token-nya kembali
+        limiter.refundUsername("alice");
+
+        assertThat(limiter.tryAcquireUsername("alice")).isTrue();
+    }
+
+    @Test
+    void missingUsernameIsNotLimited() {
+        for (int i = 0; i < 10; i++) {
+            assertThat(limiter.tryAcquireUsername(null)).isTrue();
+        }
+        limiter.refundUsername(null);
+    }
+
+    private double rejected(String key) {
+        return meterRegistry.get("login.rate.limit.rejected").tag("key", key).counter().count();
+    }
+}
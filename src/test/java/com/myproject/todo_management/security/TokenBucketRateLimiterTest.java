@@ -0,0 +1,106 @@
+package com.myproject.todo_management.security;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TokenBucketRateLimiterTest {
+
+    // sama dengan jumlah shard di TokenBucketRateLimiter
+    private static final int SHARDS = 16;
+
+    @Test
+    void consumesUpToCapacityThenRejects() {
+        TokenBucketRateLimiter limiter = new TokenBucketRateLimiter(3, 1, 60_000, 1000);
+
+        assertThat(limiter.tryConsume("a")).isEqualTo(2);
+        assertThat(limiter.tryConsume("a")).isEqualTo(1);
+        assertThat(limiter.tryConsume("a")).isZero();
+        assertThat(limiter.tryConsume("a")).isEqualTo(-1);
+        assertThat(limiter.tryAcquire("a")).isFalse();
+    }
+
+    @Test
+    void keysHaveIndependentBuckets() {
+        TokenBucketRateLimiter limiter = new TokenBucketRateLimiter(1, 1, 60_000, 1000);
+
+        assertThat(limiter.tryAcquire("a")).isTrue();
+        assertThat(limiter.tryAcquire("a")).isFalse();
+        assertThat(limiter.tryAcquire("b")).isTrue();
+    }
+
+    @Test
+    void refundReturnsTokenUpToCapacity() {
+        TokenBucketRateLimiter limiter = new TokenBucketRateLimiter(2, 1, 60_000, 1000);
+
+        for (int i = 0; i < 10; i++) {
+            assertThat(limiter.tryAcquire("a")).isTrue();
+            limiter.refund("a");
+        }
+        // refund berlebih tidak menambah token di atas capacity
+        limiter.refund("a");
+        limiter.refund("unknown");
+
+        assertThat(limiter.tryConsume("a")).isEqualTo(1);
+        assertThat(limiter.tryConsume("a")).isZero();
+        assertThat(limiter.tryAcquire("a")).isFalse();
+    }
+
+    @Test
+    void refillsOverTime() throws InterruptedException {
+        // 1 token per 20 ms
+        TokenBucketRateLimiter limiter = new TokenBucketRateLimiter(1, 1, 20, 1000);
+
+        assertThat(limiter.tryAcquire("a")).isTrue();
+        assertThat(limiter.tryAcquire("a")).isFalse();
+
+        Thread.sleep(100);
+
+        assertThat(limiter.tryAcquire("a")).isTrue();
+    }
+
+    @Test
+    void evictionDropsLeastRecentlyUsedBucketInsteadOfDrainedOne() throws InterruptedException {
+        // 2 key per shard
+        TokenBucketRateLimiter limiter = new TokenBucketRateLimiter(1, 1, 60_000, SHARDS * 2);
+        List<String> sameShard = keysInSameShardAs("drained", 2);
+        String older = sameShard.get(0);
+        String newcomer = sameShard.get(1);
+
+        assertThat(limiter.tryAcquire(older)).isTrue();
+        Thread.sleep(2);
+        assertThat(limiter.tryAcquire("drained")).isTrue();
+        Thread.sleep(2);
+
+        // shard penuh: key baru membuang bucket yang paling lama tidak dipakai
+        assertThat(limiter.tryAcquire(newcomer)).isTrue();
+
+        assertThat(limiter.tryAcquire("drained")).isFalse();
+        assertThat(limiter.tryAcquire(older)).isTrue();
+    }
+
+    @Test
+    void retryAfterIsTimeForOneToken() {
+        TokenBucketRateLimiter limiter = new TokenBucketRateLimiter(5, 5, 60_000, 1000);
+
+        assertThat(limiter.getRetryAfterSeconds()).isEqualTo(12);
+        assertThat(limiter.getResetSeconds(0)).isEqualTo(60);
+        assertThat(limiter.getResetSeconds(5)).isZero();
+    }
+
+    private static List<String> keysInSameShardAs(String key, int count) {
+        int shard = shardOf(key);
+        return IntStream.iterate(0, i -> i + 1)
+                .mapToObj(i -> "key" + i)
+                .filter(candidate -> shardOf(candidate) == shard)
+                .limit(count)
+                .toList();
+    }
+
+    private static int shardOf(String key) {
+        return (key.hashCode() & 0x7fffffff) % SHARDS;
+    }
+}
@@ -0,0 +1,101 @@
+package com.myproject.todo_management.security;
+
+import com.myproject.todo_management.entity.Role;
+import com.myproject.todo_management.entity.User;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class UserDetailsCacheTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private final UserDetailsCache cache = new UserDetailsCache(100, 300, meterRegistry);
+
+    @Test
+    void userIsCachedUnderUsernameAndEmail() {
+        cache.put(user(1L, "Alice", "alice@mail.com", "old-hash"), cache.stamp());
+
+        assertThat(cache.get("alice").id()).isEqualTo(1L);
+        assertThat(cache.get("ALICE@mail.com").id()).isEqualTo(1L);
+
+        cache.evict("alice", "alice@mail.com");
+
+        assertThat(cache.get("alice")).isNull();
+        assertThat(cache.get("alice@mail.com")).isNull();
+    }
+
+    @Test
+    void userLoadedBeforeEvictIsRejected() {
+        long stamp = cache.stamp();
+        // updatePassword commit di antara query dan put
+        cache.evict("alice", "alice@mail.com");
+
+        UserDetailsCache.CachedUser loaded = cache.put(user(1L, "alice", "alice@mail.com", "old-hash"), stamp);
+
+        assertThat(loaded.password()).isEqualTo("old-hash");
+        assertThat(cache.get("alice")).isNull();
+        assertThat(cache.get("alice@mail.com")).isNull();
+
+        cache.put(user(1L, "alice", "alice@mail.com", "new-hash"), cache.stamp());
+
+        assertThat(cache.get("alice").password()).isEqualTo("new-hash");
+    }
+
+    @Test
+    void evictingOtherUserDoesNotRejectLoad() {
+        long stamp = cache.stamp();
+        cache.evict("bob", "bob@mail.com");
+
+        cache.put(user(1L, "alice", "alice@mail.com", "hash"), stamp);
+
+        assertThat(cache.get("alice")).isNotNull();
+    }
+
+    @Test
+    void fullCacheEvictsLeastRecentlyUsedUserAndKeepsTombstones() throws InterruptedException {
+        UserDetailsCache small = new UserDetailsCache(6, 300, new SimpleMeterRegistry());
+        long staleStamp = small.stamp();
+        small.evict("alice", "alice@mail.com");
+        small.put(user(2L, "bob", "bob@mail.com", "hash"), small.stamp());
+        Thread.sleep(1);
+        small.put(user(3L, "carol", "carol@mail.com", "hash"), small.stamp());
+        Thread.sleep(1);
+        // bob paling lama dimasukkan tapi baru saja dipakai
+        small.get("bob");
+
+        // cache penuh (2 tombstone + 2 user x 2 key): carol dibuang dari kedua key, tombstone alice tetap
+        small.put(user(4L, "dave", "dave@mail.com", "hash"), small.stamp());
+
+        assertThat(small.get("bob")).isNotNull();
+        assertThat(small.get("carol")).isNull();
+        assertThat(small.get("carol@mail.com")).isNull();
+        assertThat(small.get("dave")).isNotNull();
+
+        small.put(user(1L, "alice", "alice@mail.com", "old-hash"), staleStamp);
+
+        assertThat(small.get("alice")).isNull();
+    }
+
+    @Test
+    void expiredUserIsMiss() {
+        UserDetailsCache expiring = new UserDetailsCache(100, 0, new SimpleMeterRegistry());
+
+        expiring.put(user(1L, "alice", "alice@mail.com", "hash"), expiring.stamp());
+
+        assertThat(expiring.get("alice")).isNull();
+    }
+
+    private static User user(Long id, String username, String email, String password) {
+        User user = new User();
+        user.setId(id);
+        user.setUsername(username);
+        user.setEmail(email);
+        user.setPassword(password);
+        user.setRoles(Set.of(new Role(1L, "ROLE_USER")));
+        return user;
+    }
+}
@@ -0,0 +1,517 @@
+package com.myproject.todo_management.service.impl;
+
+import com.myproject.todo_management.dto.PagedResponse;
+import com.myproject.todo_management.dto.TodoBulkOperationDto;
+import com.myproject.todo_management.dto.TodoBulkResultDto;
+import com.myproject.todo_management.dto.TodoBulkUpdateResponse;
+import com.myproject.todo_management.dto.TodoDto;
+import com.myproject.todo_management.dto.TodoFilter;
+import com.myproject.todo_management.dto.TodoSyncResponse;
+import com.myproject.todo_management.dto.TodoVersionDto;
+import com.myproject.todo_management.entity.Todo;
+import com.myproject.todo_management.entity.TodoTombstone;
+import com.myproject.todo_management.entity.User;
+import com.myproject.todo_management.event.TodoEvent;
+import com.myproject.todo_management.event.TodoEventBus;
+import com.myproject.todo_management.exception.TodoAPIException;
+import com.myproject.todo_management.respository.TodoRepository;
+import com.myproject.todo_management.respository.TodoTombstoneRepository;
+import com.myproject.todo_management.respository.UserRepository;
+import com.myproject.todo_management.search.TodoSearchIndex;
+import com.myproject.todo_management.stats.PageCountCache;
+import com.myproject.todo_management.stats.TodoCounters;
+import com.myproject.todo_management.utils.SyncWatermark;
+import org.assertj.core.api.ThrowableAssert.ThrowingCallable;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.ArgumentMatchers;
+import org.mockito.Captor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+import static com.myproject.todo_management.dto.TodoBulkOperationDto.Operation.COMPLETE;
+import static com.myproject.todo_management.dto.TodoBulkOperationDto.Operation.CREATE;
+import static com.myproject.todo_management.dto.TodoBulkOperationDto.Operation.DELETE;
+import static com.myproject.todo_management.dto.TodoBulkOperationDto.Operation.UPDATE;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class TodoServiceImplTest {
+
+    @Mock
+    private TodoRepository todoRepository;
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private TodoTombstoneRepository todoTombstoneRepository;
+
+    @Mock
+    private TodoEventBus todoEventBus;
+
+    @Mock
+    private TodoSearchIndex todoSearchIndex;
+
+    @Mock
+    private TodoCounters todoCounters;
+
+    @Mock
+    private PageCountCache pageCountCache;
+
+    @InjectMocks
+    private TodoServiceImpl todoService;
+
+    @Captor
+    private ArgumentCaptor<List<TodoTombstone>> tombstones;
+
+    @BeforeEach
+    void setUp() {
+        loginAs("alice", "ROLE_USER");
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void bulkReportsResultPerOperation() {
+        User alice = new User();
+        alice.setId(1L);
+        alice.setUsername("alice");
+        Todo own = todo(10L, "alice", false);
+        Todo otherUser = todo(11L, "bob", false);
+        Todo completedOwn = todo(12L, "alice", true);
+
+        when(todoRepository.findAllById(any())).thenReturn(List.of(own, otherUser, completedOwn));
+        when(userRepository.findByUsername("alice")).thenReturn(Optional.of(alice));
+        when(todoRepository.findTitlesByUserAndTitleIn(eq(alice), any())).thenReturn(List.of("Existing"));
+        when(todoRepository.saveAll(any())).thenAnswer(invocation -> {
+            List<Todo> saved = invocation.getArgument(0);
+            long id = 100;
+            for (Todo todo : saved) {
+                todo.setId(id++);
+                todo.setVersion(0L);
+            }
+            return saved;
+        });
+
+        List<TodoBulkResultDto> results = todoService.bulkTodos(List.of(
+                operation(CREATE, null, "Buy milk"),
+                // duplikat di request yang sama (case-insensitive seperti MySQL)
+                operation(CREATE, null, "buy MILK"),
+                // sudah ada di database
+                operation(CREATE, null, "existing"),
+                operation(UPDATE, 10L, "Renamed"),
+                operation(COMPLETE, 11L, null),
+                operation(DELETE, 99L, null),
+                operation(DELETE, 12L, null),
+                // sudah dihapus oleh operasi sebelumnya
+                operation(COMPLETE, 12L, null),
+                operation(null, 10L, null)
+        ));
+
+        assertThat(results).extracting(TodoBulkResultDto::getIndex).containsExactly(0, 1, 2, 3, 4, 5, 6, 7, 8);
+        assertThat(results).extracting(TodoBulkResultDto::getStatus)
+                .containsExactly(201, 400, 400, 200, 403, 404, 200, 404, 400);
+        assertThat(results.get(0).getTodo().getId()).isEqualTo(100L);
+        assertThat(results.get(0).getTodo().getCreatedBy()).isEqualTo("alice");
+        assertThat(results.get(1).getMessage()).isEqualTo("Title already exists");
+        assertThat(results.get(2).getMessage()).isEqualTo("Title already exists");
+        assertThat(results.get(3).getTodo().getTitle()).isEqualTo("Renamed");
+        assertThat(otherUser.isCompleted()).isFalse();
+
+        verify(todoRepository).deleteAll(List.of(completedOwn));
+        verify(todoTombstoneRepository).saveAll(tombstones.capture());
+        assertThat(tombstones.getValue()).extracting(TodoTombstone::getTodoId).containsExactly(12L);
+        verify(todoRepository).flush();
+
+        // +1 create, -1 delete (completed): jumlah baris tetap, jadi cache COUNT tidak di-invalidate
+        verify(todoCounters).addAfterCommit("alice", 0, -1);
+        verifyNoMoreInteractions(todoCounters);
+        verifyNoInteractions(pageCountCache);
+    }
+
+    @Test
+    void bulkRejectsEmptyAndOversizedRequests() {
+        assertStatus(() -> todoService.bulkTodos(List.of()), HttpStatus.BAD_REQUEST);
+        assertStatus(() -> todoService.bulkTodos(Collections.nCopies(501, operation(COMPLETE, 1L, null))),
+                HttpStatus.BAD_REQUEST);
+        verifyNoInteractions(todoRepository);
+    }
+
+    @Test
+    void updateWithStaleIfMatchVersionFailsWithoutSaving() {
+        when(todoRepository.findById(1L)).thenReturn(Optional.of(todo(1L, "alice", false)));
+
+        assertStatus(() -> todoService.updateTodo(new TodoDto(null, "New", "New", false, null, null, null), 1L, 2L),
+                HttpStatus.PRECONDITION_FAILED);
+        verify(todoRepository, never()).save(any());
+    }
+
+    @Test
+    void updateWithCurrentIfMatchVersionSaves() {
+        Todo todo = todo(1L, "alice", false);
+        when(todoRepository.findById(1L)).thenReturn(Optional.of(todo));
+        when(todoRepository.save(todo)).thenReturn(todo);
+
+        TodoDto updated = todoService.updateTodo(new TodoDto(null, "New", "New desc", true, null, null, null), 1L, 3L);
+
+        assertThat(updated.getTitle()).isEqualTo("New");
+        assertThat(updated.getUpdatedBy()).isEqualTo("alice");
+        verify(todoCounters).addAfterCommit("alice", 0, 1);
+    }
+
+    @Test
+    void completeAndInCompleteCheckIfMatchVersion() {
+        when(todoRepository.findById(1L)).thenReturn(Optional.of(todo(1L, "alice", false)));
+
+        assertStatus(() -> todoService.completedTodo(1L, 4L), HttpStatus.PRECONDITION_FAILED);
+        assertStatus(() -> todoService.inCompleteTodo(1L, 2L), HttpStatus.PRECONDITION_FAILED);
+        verify(todoRepository, never()).save(any());
+    }
+
+    @Test
+    void updateOfAnotherUsersTodoIsForbidden() {
+        when(todoRepository.findById(1L)).thenReturn(Optional.of(todo(1L, "bob", false)));
+
+        assertStatus(() -> todoService.updateTodo(new TodoDto(null, "New", "New", false, null, null, null), 1L, null),
+                HttpStatus.FORBIDDEN);
+    }
+
+    @Test
+    void markTodosReturnsNewVersionsOfChangedTodosOnly() {
+        // todo 2 sudah completed / bukan milik alice, jadi tidak ikut berubah
+        when(todoRepository.findChangingByCreatedByForUpdate(Set.of(1L, 2L, 3L), "alice", true))
+                .thenReturn(List.of(new TodoVersionDto(1L, 4L, "alice"), new TodoVersionDto(3L, 0L, "alice")));
+        when(todoRepository.updateCompletedByIdsAndCreatedBy(eq(Set.of(1L, 3L)), eq("alice"), eq(true), eq("alice"), any(LocalDateTime.class)))
+                .thenReturn(2);
+        when(todoEventBus.hasSubscribers()).thenReturn(false);
+
+        TodoBulkUpdateResponse response = todoService.markTodos(List.of(1L, 2L, 3L, 3L), true);
+
+        assertThat(response.getRequested()).isEqualTo(3);
+        assertThat(response.getAffected()).isEqualTo(2);
+        assertThat(response.getTodos())
+                .extracting(TodoVersionDto::getId, TodoVersionDto::getVersion)
+                .containsExactly(tuple(1L, 5L), tuple(3L, 1L));
+        verify(todoCounters).addAfterCommit("alice", 0, 2);
+        verify(todoSearchIndex).markCompletedAfterCommit(Set.of(1L, 3L), "alice", true, "alice");
+        // tanpa client SSE todo tidak perlu dibaca ulang
+        verify(todoRepository, never()).findAllById(any());
+    }
+
+    @Test
+    void markTodosWithNothingToChangeSkipsUpdate() {
+        when(todoRepository.findChangingByCreatedByForUpdate(Set.of(1L, 2L), "alice", false)).thenReturn(List.of());
+
+        TodoBulkUpdateResponse response = todoService.markTodos(List.of(1L, 2L), false);
+
+        assertThat(response.getRequested()).isEqualTo(2);
+        assertThat(response.getAffected()).isZero();
+        assertThat(response.getTodos()).isEmpty();
+        verifyNoMoreInteractions(todoRepository);
+        verifyNoInteractions(todoCounters, todoSearchIndex, todoEventBus);
+    }
+
+    @Test
+    void adminMarkTodosCountsPerOwnerAndPublishesChangedTodos() {
+        loginAs("admin", "ROLE_ADMIN");
+        when(todoRepository.findChangingForUpdate(Set.of(1L, 2L, 3L, 4L), false)).thenReturn(List.of(
+                new TodoVersionDto(1L, 1L, "alice"),
+                new TodoVersionDto(2L, 2L, "bob"),
+                new TodoVersionDto(3L, 0L, "bob")
+        ));
+        when(todoRepository.updateCompletedByIds(eq(Set.of(1L, 2L, 3L)), eq(false), eq("admin"), any(LocalDateTime.class)))
+                .thenReturn(3);
+        when(todoEventBus.hasSubscribers()).thenReturn(true);
+        when(todoRepository.findAllById(Set.of(1L, 2L, 3L)))
+                .thenReturn(List.of(todo(1L, "alice", false), todo(2L, "bob", false), todo(3L, "bob", false)));
+
+        TodoBulkUpdateResponse response = todoService.markTodos(List.of(1L, 2L, 3L, 4L), false);
+
+        assertThat(response.getAffected()).isEqualTo(3);
+        assertThat(response.getTodos()).extracting(TodoVersionDto::getVersion).containsExactly(2L, 3L, 1L);
+        verify(todoCounters).addAfterCommit("alice", 0, -1);
+        verify(todoCounters).addAfterCommit("bob", 0, -2);
+        verify(todoSearchIndex).markCompletedAfterCommit(Set.of(1L, 2L, 3L), null, false, "admin");
+        verify(todoEventBus, times(3)).publishAfterCommit(eq(TodoEvent.Type.INCOMPLETED), any(), any(), any());
+        verify(todoEventBus, never()).publishAfterCommit(any(), eq(4L), any(), any());
+    }
+
+    @Test
+    void markTodosRejectsEmptyIds() {
+        assertStatus(() -> todoService.markTodos(List.of(), true), HttpStatus.BAD_REQUEST);
+    }
+
+    @Test
+    void syncWithWatermarkOlderThanTombstoneRetentionIsGone() {
+        String since = new SyncWatermark(LocalDateTime.now().minusDays(31), 5L).encode();
+
+        assertStatus(() -> todoService.syncTodos(since, 100), HttpStatus.GONE);
+        verifyNoInteractions(todoRepository, todoTombstoneRepository);
+    }
+
+    @Test
+    void syncRejectsSizeOutOfBounds() {
+        assertStatus(() -> todoService.syncTodos(null, 0), HttpStatus.BAD_REQUEST);
+        assertStatus(() -> todoService.syncTodos(null, 1001), HttpStatus.BAD_REQUEST);
+    }
+
+    @Test
+    void initialSyncReturnsEverythingUpToCommitLagWithoutTombstones() {
+        LocalDateTime before = LocalDateTime.now();
+        when(todoRepository.findChangedByCreatedBy(eq("alice"), eq(SyncWatermark.INITIAL.time()), eq(0L), any(), eq(Limit.of(3))))
+                .thenReturn(List.of(changedTodo(1L, before.minusHours(2)), changedTodo(2L, before.minusHours(1))));
+
+        TodoSyncResponse response = todoService.syncTodos(null, 2);
+
+        assertThat(response.getChanged()).extracting(TodoDto::getId).containsExactly(1L, 2L);
+        assertThat(response.isHasMore()).isFalse();
+        // client baru belum punya todo untuk dihapus
+        assertThat(response.getDeleted()).isEmpty();
+        verifyNoInteractions(todoTombstoneRepository);
+
+        // halaman terakhir: sync berikutnya mulai dari "until" (sekarang - commit lag)
+        SyncWatermark next = SyncWatermark.decode(response.getWatermark());
+        assertThat(next.id()).isEqualTo(Long.MAX_VALUE);
+        assertThat(next.time()).isBefore(before).isAfter(before.minusSeconds(3));
+    }
+
+    @Test
+    void truncatedSyncPageContinuesFromLastReturnedTodo() {
+        SyncWatermark since = new SyncWatermark(LocalDateTime.now().minusHours(3), 9L);
+        Todo first = changedTodo(10L, since.time().plusMinutes(1));
+        Todo second = changedTodo(11L, since.time().plusMinutes(2));
+        when(todoRepository.findChangedByCreatedBy(eq("alice"), eq(since.time()), eq(9L), any(), eq(Limit.of(3))))
+                .thenReturn(List.of(first, second, changedTodo(12L, since.time().plusMinutes(3))));
+        when(todoTombstoneRepository.findTodoIdsByCreatedByDeletedBetween("alice", since.time(), second.getTimeUpdated()))
+                .thenReturn(List.of(7L));
+
+        TodoSyncResponse response = todoService.syncTodos(since.encode(), 2);
+
+        assertThat(response.isHasMore()).isTrue();
+        assertThat(response.getChanged()).extracting(TodoDto::getId).containsExactly(10L, 11L);
+        // hanya tombstone sampai todo terakhir yang dikirim, sisanya ikut halaman berikutnya
+        assertThat(response.getDeleted()).containsExactly(7L);
+        assertThat(SyncWatermark.decode(response.getWatermark())).isEqualTo(new SyncWatermark(second.getTimeUpdated(), 11L));
+    }
+
+    @Test
+    void syncReturnsDeletedIdsFromTombstones() {
+        SyncWatermark since = new SyncWatermark(LocalDateTime.now().minusHours(1), Long.MAX_VALUE);
+        when(todoRepository.findChangedByCreatedBy(eq("alice"), eq(since.time()), eq(Long.MAX_VALUE), any(), eq(Limit.of(101))))
+                .thenReturn(List.of());
+        when(todoTombstoneRepository.findTodoIdsByCreatedByDeletedBetween(eq("alice"), eq(since.time()), any()))
+                .thenReturn(List.of(3L, 4L));
+
+        TodoSyncResponse response = todoService.syncTodos(since.encode(), 100);
+
+        assertThat(response.getChanged()).isEmpty();
+        assertThat(response.getDeleted()).containsExactly(3L, 4L);
+        assertThat(SyncWatermark.decode(response.getWatermark()).time()).isAfter(since.time());
+    }
+
+    @Test
+    void syncWithoutChangesKeepsWatermark() {
+        SyncWatermark since = new SyncWatermark(LocalDateTime.now().minusHours(1), Long.MAX_VALUE);
+        when(todoRepository.findChangedByCreatedBy(eq("alice"), eq(since.time()), eq(Long.MAX_VALUE), any(), eq(Limit.of(101))))
+                .thenReturn(List.of());
+        when(todoTombstoneRepository.findTodoIdsByCreatedByDeletedBetween(eq("alice"), eq(since.time()), any()))
+                .thenReturn(List.of());
+
+        TodoSyncResponse response = todoService.syncTodos(since.encode(), 100);
+
+        // watermark sama -> ETag sama -> client dapat 304
+        assertThat(response.getWatermark()).isEqualTo(since.encode());
+    }
+
+    @Test
+    void syncWithoutChangesNearRetentionLimitAdvancesWatermark() {
+        SyncWatermark since = new SyncWatermark(LocalDateTime.now().minusDays(20), Long.MAX_VALUE);
+        when(todoRepository.findChangedByCreatedBy(eq("alice"), eq(since.time()), eq(Long.MAX_VALUE), any(), eq(Limit.of(101))))
+                .thenReturn(List.of());
+        when(todoTombstoneRepository.findTodoIdsByCreatedByDeletedBetween(eq("alice"), eq(since.time()), any()))
+                .thenReturn(List.of());
+
+        TodoSyncResponse response = todoService.syncTodos(since.encode(), 100);
+
+        // client yang jarang berubah tidak boleh kena 410 di sync berikutnya
+        assertThat(SyncWatermark.decode(response.getWatermark()).time()).isAfter(LocalDateTime.now().minusMinutes(1));
+    }
+
+    @Test
+    void adminSyncIsNotFilteredByOwner() {
+        loginAs("admin", "ROLE_ADMIN");
+        SyncWatermark since = new SyncWatermark(LocalDateTime.now().minusHours(1), Long.MAX_VALUE);
+        when(todoRepository.findChanged(eq(since.time()), eq(Long.MAX_VALUE), any(), eq(Limit.of(11))))
+                .thenReturn(List.of(changedTodo(1L, since.time().plusMinutes(1))));
+        when(todoTombstoneRepository.findTodoIdsDeletedBetween(eq(since.time()), any())).thenReturn(List.of(2L));
+
+        TodoSyncResponse response = todoService.syncTodos(since.encode(), 10);
+
+        assertThat(response.getChanged()).extracting(TodoDto::getId).containsExactly(1L);
+        assertThat(response.getDeleted()).containsExactly(2L);
+        verify(todoRepository, never()).findChangedByCreatedBy(any(), any(), any(), any(), any());
+    }
+
+    @Test
+    void searchRejectsBlankQueryAndIndexThatIsNotReady() {
+        assertStatus(() -> todoService.searchTodos(" ", 10), HttpStatus.BAD_REQUEST);
+        assertStatus(() -> todoService.searchTodos("milk", 0), HttpStatus.BAD_REQUEST);
+
+        when(todoSearchIndex.isReady()).thenReturn(false);
+        assertStatus(() -> todoService.searchTodos("milk", 10), HttpStatus.SERVICE_UNAVAILABLE);
+        verifyNoInteractions(todoRepository);
+    }
+
+    @Test
+    void searchIsScopedToCurrentUserUnlessAdmin() {
+        when(todoSearchIndex.isReady()).thenReturn(true);
+
+        todoService.searchTodos("milk", 10);
+        loginAs("admin", "ROLE_ADMIN");
+        todoService.searchTodos("milk", 10);
+
+        verify(todoSearchIndex).search("alice", "milk", 10);
+        verify(todoSearchIndex).search(null, "milk", 10);
+    }
+
+    @Test
+    void listRejectsSortOutsideWhitelistAndUnknownDirection() {
+        PageRequest pageable = PageRequest.of(0, 10);
+
+        assertStatus(() -> todoService.getAllTodos(new TodoFilter(), "title", "asc", pageable), HttpStatus.BAD_REQUEST);
+        assertStatus(() -> todoService.getAllTodos(new TodoFilter(), "time_created", "sideways", pageable), HttpStatus.BAD_REQUEST);
+        // nama property entity bukan nama kolom API
+        assertStatus(() -> todoService.getAllTodos(new TodoFilter(), "timeCreated", "asc", pageable), HttpStatus.BAD_REQUEST);
+        verifyNoInteractions(todoRepository);
+    }
+
+    @Test
+    void listDescendingWithoutSortOrdersById() {
+        when(todoRepository.findAll(ArgumentMatchers.<Specification<Todo>>any(),
+                eq(PageRequest.of(0, 10, Sort.by(Sort.Direction.DESC, "id")))))
+                .thenReturn(new PageImpl<>(List.of(todo(2L, "alice", false), todo(1L, "alice", false))));
+
+        PagedResponse<TodoDto> response = todoService.getAllTodos(new TodoFilter(), null, "desc", PageRequest.of(0, 10));
+
+        assertThat(response.getData()).extracting(TodoDto::getId).containsExactly(2L, 1L);
+        verifyNoInteractions(pageCountCache);
+    }
+
+    @Test
+    void listSortedByTimeUsesIdAsTieBreaker() {
+        TodoFilter filter = new TodoFilter();
+        filter.setCompleted(true);
+        Sort expected = Sort.by(Sort.Direction.ASC, "timeCreated").and(Sort.by(Sort.Direction.ASC, "id"));
+        when(todoRepository.findAll(ArgumentMatchers.<Specification<Todo>>any(), eq(PageRequest.of(1, 5, expected))))
+                .thenReturn(new PageImpl<>(List.of()));
+
+        todoService.getAllTodos(filter, "time_created", "ASC", PageRequest.of(1, 5));
+
+        verify(todoRepository).findAll(ArgumentMatchers.<Specification<Todo>>any(), eq(PageRequest.of(1, 5, expected)));
+    }
+
+    @Test
+    void unfilteredAscendingListSkipsSpecificationQuery() {
+        PageRequest pageable = PageRequest.of(0, 10);
+        when(pageCountCache.get(PageCountCache.userTodos("alice"))).thenReturn(42L);
+        when(todoRepository.findTodoDtoSliceByCreatedBy("alice", pageable))
+                .thenReturn(new SliceImpl<>(List.of(new TodoDto(1L, "Title", "Description", false, "alice", "alice", 0L)), pageable, true));
+
+        PagedResponse<TodoDto> response = todoService.getAllTodos(new TodoFilter(), null, "asc", pageable);
+
+        assertThat(response.getTotalElements()).isEqualTo(42L);
+        assertThat(response.getTotalPages()).isEqualTo(5);
+        verify(todoRepository, never()).findAll(ArgumentMatchers.<Specification<Todo>>any(), any(Pageable.class));
+    }
+
+    @Test
+    void unfilteredListCacheMissStoresCountWithStampTakenBeforeQuery() {
+        PageRequest pageable = PageRequest.of(0, 10);
+        String key = PageCountCache.userTodos("alice");
+        when(pageCountCache.get(key)).thenReturn(null);
+        when(pageCountCache.stamp(key)).thenReturn(7L);
+        when(todoRepository.findTodoDtoByCreatedBy("alice", pageable))
+                .thenReturn(new PageImpl<>(List.of(new TodoDto(1L, "Title", "Description", false, "alice", "alice", 0L)), pageable, 31));
+
+        PagedResponse<TodoDto> response = todoService.getAllTodos(new TodoFilter(), null, "asc", pageable);
+
+        assertThat(response.getTotalElements()).isEqualTo(31L);
+        verify(pageCountCache).put(key, 31, 7L);
+        verify(todoRepository, never()).findTodoDtoSliceByCreatedBy(any(), any());
+    }
+
+    @Test
+    void deleteInvalidatesOwnerAndAdminCounts() {
+        when(todoRepository.findById(1L)).thenReturn(Optional.of(todo(1L, "alice", false)));
+
+        todoService.deleteTodo(1L);
+
+        verify(pageCountCache).invalidateAfterCommit(PageCountCache.userTodos("alice"), PageCountCache.ALL_TODOS);
+    }
+
+    private void loginAs(String username, String role) {
+        SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken(
+                username, null, List.of(new SimpleGrantedAuthority(role))));
+    }
+
+    private static void assertStatus(ThrowingCallable call, HttpStatus status) {
+        assertThatThrownBy(call)
+                .isInstanceOfSatisfying(TodoAPIException.class, ex -> assertThat(ex.getStatus()).isEqualTo(status));
+    }
+
+    private static Todo todo(Long id, String createdBy, boolean completed) {
+        Todo todo = new Todo();
+        todo.setId(id);
+        todo.setTitle("Todo " + id);
+        todo.setDescription("Description " + id);
+        todo.setCompleted(completed);
+        todo.setCreatedBy(createdBy);
+        todo.setVersion(3L);
+        return todo;
+    }
+
+    private static Todo changedTodo(Long id, LocalDateTime timeUpdated) {
+        Todo todo = todo(id, "alice", false);
+        todo.setTimeUpdated(timeUpdated);
+        return todo;
+    }
+
+    private static TodoBulkOperationDto operation(TodoBulkOperationDto.Operation operation, Long id, String title) {
+        return new TodoBulkOperationDto(operation, id, title, title == null ? null : "Description", false);
+    }
+}
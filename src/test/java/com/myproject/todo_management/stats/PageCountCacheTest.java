@@ -0,0 +1,118 @@
+package com.myproject.todo_management.stats;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PageCountCacheTest {
+
+    private static final String ALICE = PageCountCache.userTodos("alice");
+
+    private static final String BOB = PageCountCache.userTodos("bob");
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private final PageCountCache cache = new PageCountCache(100, 300, meterRegistry);
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void storedCountIsReturnedUntilInvalidated() {
+        assertThat(cache.get(ALICE)).isNull();
+
+        cache.put(ALICE, 42, cache.stamp(ALICE));
+
+        assertThat(cache.get(ALICE)).isEqualTo(42L);
+        assertThat(result("hit")).isEqualTo(1);
+        assertThat(result("miss")).isEqualTo(1);
+
+        cache.invalidateAfterCommit(ALICE, PageCountCache.ALL_TODOS);
+
+        assertThat(cache.get(ALICE)).isNull();
+        cache.put(ALICE, 43, cache.stamp(ALICE));
+        assertThat(cache.get(ALICE)).isEqualTo(43L);
+    }
+
+    @Test
+    void countComputedBeforeInvalidateIsRejected() {
+        long stamp = cache.stamp(ALICE);
+        // write commit di antara SELECT COUNT(*) dan put
+        cache.invalidateAfterCommit(ALICE);
+
+        cache.put(ALICE, 42, stamp);
+
+        assertThat(cache.get(ALICE)).isNull();
+    }
+
+    @Test
+    void invalidatingOtherKeyDoesNotRejectCount() {
+        long stamp = cache.stamp(ALICE);
+        cache.invalidateAfterCommit(BOB, PageCountCache.ALL_USERS);
+
+        cache.put(ALICE, 42, stamp);
+
+        assertThat(cache.get(ALICE)).isEqualTo(42L);
+    }
+
+    @Test
+    void invalidateWaitsForCommit() {
+        cache.put(ALICE, 42, cache.stamp(ALICE));
+
+        TransactionSynchronizationManager.initSynchronization();
+        cache.invalidateAfterCommit(ALICE);
+        // transaksi belum commit: jumlah lama masih benar untuk request lain
+        assertThat(cache.get(ALICE)).isEqualTo(42L);
+        commit();
+
+        assertThat(cache.get(ALICE)).isNull();
+    }
+
+    @Test
+    void expiredCountIsMiss() {
+        PageCountCache expiring = new PageCountCache(100, 0, meterRegistry);
+
+        expiring.put(ALICE, 42, expiring.stamp(ALICE));
+
+        assertThat(expiring.get(ALICE)).isNull();
+    }
+
+    @Test
+    void evictionKeepsTombstones() {
+        PageCountCache small = new PageCountCache(2, 300, meterRegistry);
+        long staleStamp = small.stamp(ALICE);
+        small.invalidateAfterCommit(ALICE);
+
+        // cache penuh: entry berisi count dibuang, tombstone alice tetap
+        small.put(BOB, 1, small.stamp(BOB));
+        small.put(PageCountCache.ALL_TODOS, 2, small.stamp(PageCountCache.ALL_TODOS));
+
+        assertThat(small.get(BOB)).isNull();
+        assertThat(small.get(PageCountCache.ALL_TODOS)).isEqualTo(2L);
+
+        // tanpa tombstone versi alice kembali ke 0 dan COUNT lama ini akan diterima
+        small.put(ALICE, 42, staleStamp);
+
+        assertThat(small.get(ALICE)).isNull();
+    }
+
+    private void commit() {
+        List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+        TransactionSynchronizationManager.clearSynchronization();
+        synchronizations.forEach(TransactionSynchronization::afterCommit);
+    }
+
+    private double result(String result) {
+        return meterRegistry.get("page.count.cache").tag("result", result).counter().count();
+    }
+}
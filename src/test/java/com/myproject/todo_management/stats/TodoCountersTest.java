@@ -0,0 +1,183 @@
+package com.myproject.todo_management.stats;
+
+import com.myproject.todo_management.dto.TodoCountDto;
+import com.myproject.todo_management.dto.TodoStatsDto;
+import com.myproject.todo_management.respository.TodoRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class TodoCountersTest {
+
+    private final TodoRepository todoRepository = mock(TodoRepository.class);
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private final TodoCounters counters = new TodoCounters(todoRepository, meterRegistry);
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void firstReconcileLoadsCountsFromDatabase() {
+        reconciledWith(count("alice", 3, 1), count("bob", 2, 2));
+
+        assertThat(counters.isReady()).isTrue();
+        assertStats(counters.get("alice"), 3, 1);
+        assertStats(counters.get("bob"), 2, 2);
+        assertStats(counters.get("carol"), 0, 0);
+        assertStats(counters.getGlobal(), 5, 3);
+        // isi awal bukan selisih
+        assertThat(drift()).isZero();
+    }
+
+    @Test
+    void committedDeltaIsAppliedAndRolledBackDeltaIsDropped() {
+        reconciledWith(count("alice", 3, 1));
+
+        TransactionSynchronizationManager.initSynchronization();
+        counters.addAfterCommit("alice", 1, 0);
+        // belum commit
+        assertStats(counters.get("alice"), 3, 1);
+        complete(TransactionSynchronization.STATUS_COMMITTED);
+
+        TransactionSynchronizationManager.initSynchronization();
+        counters.addAfterCommit("alice", -1, -1);
+        complete(TransactionSynchronization.STATUS_ROLLED_BACK);
+
+        assertStats(counters.get("alice"), 4, 1);
+        assertStats(counters.getGlobal(), 4, 1);
+    }
+
+    @Test
+    void reconcileCorrectsDriftAndCountsIt() {
+        reconciledWith(count("alice", 3, 1), count("bob", 2, 0));
+        // delta yang tidak pernah terjadi di database
+        counters.addAfterCommit("alice", 1, 1);
+
+        reconciledWith(count("alice", 3, 1), count("bob", 2, 0));
+
+        assertStats(counters.get("alice"), 3, 1);
+        assertStats(counters.getGlobal(), 5, 1);
+        assertThat(drift()).isEqualTo(2);
+    }
+
+    @Test
+    void ownerWithDeltaInFlightIsNotCorrected() {
+        reconciledWith(count("alice", 3, 1));
+
+        // transaksi sudah commit di database (COUNT = 4) tapi delta belum diterapkan ke counter
+        TransactionSynchronizationManager.initSynchronization();
+        counters.addAfterCommit("alice", 1, 0);
+        reconciledWith(count("alice", 4, 1));
+        complete(TransactionSynchronization.STATUS_COMMITTED);
+
+        assertStats(counters.get("alice"), 4, 1);
+
+        reconciledWith(count("alice", 4, 1));
+
+        assertStats(counters.get("alice"), 4, 1);
+        assertThat(drift()).isZero();
+    }
+
+    @Test
+    void deltaAppliedDuringQueryIsNotCorrected() {
+        reconciledWith(count("alice", 3, 1));
+
+        // COUNT dibaca sebelum delta ini commit
+        when(todoRepository.countGroupByCreatedBy()).thenAnswer(invocation -> {
+            counters.addAfterCommit("alice", 1, 0);
+            return List.of(count("alice", 3, 1));
+        });
+        counters.reconcile();
+
+        assertStats(counters.get("alice"), 4, 1);
+        assertThat(drift()).isZero();
+    }
+
+    @Test
+    void notReadyUntilEveryOwnerIsReconciled() {
+        TransactionSynchronizationManager.initSynchronization();
+        counters.addAfterCommit("alice", 1, 0);
+
+        reconciledWith(count("alice", 1, 0));
+
+        assertThat(counters.isReady()).isFalse();
+
+        complete(TransactionSynchronization.STATUS_COMMITTED);
+        reconciledWith(count("alice", 1, 0));
+
+        assertThat(counters.isReady()).isTrue();
+        assertStats(counters.get("alice"), 1, 0);
+    }
+
+    @Test
+    void removedOwnerIsSubtractedFromGlobal() {
+        reconciledWith(count("alice", 3, 1), count("bob", 2, 2));
+
+        counters.removeOwnerAfterCommit("alice");
+
+        assertStats(counters.get("alice"), 0, 0);
+        assertStats(counters.getGlobal(), 2, 2);
+    }
+
+    @Test
+    void ownerWithoutTodosInDatabaseIsResetToZero() {
+        reconciledWith(count("alice", 3, 1), count("bob", 2, 2));
+
+        reconciledWith(count("bob", 2, 2));
+
+        assertStats(counters.get("alice"), 0, 0);
+        assertStats(counters.getGlobal(), 2, 2);
+        assertThat(drift()).isEqualTo(4);
+    }
+
+    @Test
+    void failedReconcileKeepsCounters() {
+        reconciledWith(count("alice", 3, 1));
+        when(todoRepository.countGroupByCreatedBy()).thenThrow(new IllegalStateException("database down"));
+
+        counters.reconcile();
+
+        assertThat(counters.isReady()).isTrue();
+        assertStats(counters.get("alice"), 3, 1);
+    }
+
+    private void reconciledWith(TodoCountDto... rows) {
+        when(todoRepository.countGroupByCreatedBy()).thenReturn(List.of(rows));
+        counters.reconcile();
+    }
+
+    // akhir transaksi: jalankan callback afterCompletion yang didaftarkan TodoCounters
+    private static void complete(int status) {
+        List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+        TransactionSynchronizationManager.clearSynchronization();
+        synchronizations.forEach(synchronization -> synchronization.afterCompletion(status));
+    }
+
+    private double drift() {
+        return meterRegistry.get("todo.stats.drift").counter().count();
+    }
+
+    private static TodoCountDto count(String owner, long total, long completed) {
+        return new TodoCountDto(owner, total, completed);
+    }
+
+    private static void assertStats(TodoStatsDto stats, long total, long completed) {
+        assertThat(stats.getTotal()).isEqualTo(total);
+        assertThat(stats.getCompleted()).isEqualTo(completed);
+        assertThat(stats.getPending()).isEqualTo(total - completed);
+    }
+}
@@ -0,0 +1,65 @@
+package com.myproject.todo_management.utils;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AfterCommitTest {
+
+    private final List<String> calls = new ArrayList<>();
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void runsImmediatelyWithoutTransaction() {
+        AfterCommit.run(() -> calls.add("run"));
+        AfterCommit.onCompletion(() -> calls.add("commit"), () -> calls.add("rollback"));
+
+        assertThat(calls).containsExactly("run", "commit");
+    }
+
+    @Test
+    void runsOnlyAfterCommit() {
+        TransactionSynchronizationManager.initSynchronization();
+        AfterCommit.run(() -> calls.add("run"));
+        AfterCommit.onCompletion(() -> calls.add("commit"), () -> calls.add("rollback"));
+
+        assertThat(calls).isEmpty();
+
+        complete(TransactionSynchronization.STATUS_COMMITTED);
+
+        assertThat(calls).containsExactly("run", "commit");
+    }
+
+    @Test
+    void rollbackSkipsActionAndRunsRollbackCallback() {
+        TransactionSynchronizationManager.initSynchronization();
+        AfterCommit.run(() -> calls.add("run"));
+        AfterCommit.onCompletion(() -> calls.add("commit"), () -> calls.add("rollback"));
+
+        complete(TransactionSynchronization.STATUS_ROLLED_BACK);
+
+        assertThat(calls).containsExactly("rollback");
+    }
+
+    // urutan callback seperti AbstractPlatformTransactionManager: afterCommit hanya kalau commit, lalu afterCompletion
+    private static void complete(int status) {
+        List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+        TransactionSynchronizationManager.clearSynchronization();
+        if (status == TransactionSynchronization.STATUS_COMMITTED) {
+            synchronizations.forEach(TransactionSynchronization::afterCommit);
+        }
+        synchronizations.forEach(synchronization -> synchronization.afterCompletion(status));
+    }
+}
@@ -0,0 +1,50 @@
+package com.myproject.todo_management.utils;
+
+import com.myproject.todo_management.exception.TodoAPIException;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+
+import java.time.LocalDateTime;
+import java.util.Base64;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class SyncWatermarkTest {
+
+    @Test
+    void encodeDecodeRoundTrip() {
+        SyncWatermark watermark = new SyncWatermark(LocalDateTime.of(2025, 3, 1, 10, 15, 30, 123_456_000), 42L);
+        SyncWatermark lastPage = new SyncWatermark(LocalDateTime.of(2025, 3, 1, 10, 15), Long.MAX_VALUE);
+
+        assertThat(SyncWatermark.decode(watermark.encode())).isEqualTo(watermark);
+        assertThat(SyncWatermark.decode(lastPage.encode())).isEqualTo(lastPage);
+        // aman dipakai di query string
+        assertThat(watermark.encode()).matches("[A-Za-z0-9_-]+");
+    }
+
+    @Test
+    void missingWatermarkMeansFullSync() {
+        assertThat(SyncWatermark.decode(null).isInitial()).isTrue();
+        assertThat(SyncWatermark.decode(" ").isInitial()).isTrue();
+        assertThat(new SyncWatermark(LocalDateTime.now(), 0L).isInitial()).isFalse();
+    }
+
+    @Test
+    void invalidWatermarkIsBadRequest() {
+        assertBadRequest("not base64!");
+        assertBadRequest(base64("2025-03-01T10:15"));
+        assertBadRequest(base64("yesterday_1"));
+        assertBadRequest(base64("2025-03-01T10:15_abc"));
+    }
+
+    private static void assertBadRequest(String watermark) {
+        assertThatThrownBy(() -> SyncWatermark.decode(watermark))
+                .isInstanceOfSatisfying(TodoAPIException.class,
+                        ex -> assertThat(ex.getStatus()).isEqualTo(HttpStatus.BAD_REQUEST));
+    }
+
+    private static String base64(String value) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(value.getBytes());
+    }
+}
@@ -0,0 +1,38 @@
+package com.myproject.todo_management.utils;
+
+import com.myproject.todo_management.exception.TodoAPIException;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class VersionETagTest {
+
+    @Test
+    void formatsVersionAsStrongETag() {
+        assertThat(VersionETag.of(3L)).isEqualTo("\"3\"");
+        assertThat(VersionETag.of(null)).isEqualTo("\"0\"");
+    }
+
+    @Test
+    void missingOrWildcardIfMatchSkipsVersionCheck() {
+        assertThat(VersionETag.parseIfMatch(null)).isNull();
+        assertThat(VersionETag.parseIfMatch(" ")).isNull();
+        assertThat(VersionETag.parseIfMatch("*")).isNull();
+    }
+
+    @Test
+    void parsesStrongWeakAndBareVersions() {
+        assertThat(VersionETag.parseIfMatch("\"3\"")).isEqualTo(3L);
+        assertThat(VersionETag.parseIfMatch("W/\"3\"")).isEqualTo(3L);
+        assertThat(VersionETag.parseIfMatch(" 3 ")).isEqualTo(3L);
+    }
+
+    @Test
+    void unknownETagCanNeverMatch() {
+        assertThatThrownBy(() -> VersionETag.parseIfMatch("\"abc\""))
+                .isInstanceOfSatisfying(TodoAPIException.class,
+                        ex -> assertThat(ex.getStatus()).isEqualTo(HttpStatus.PRECONDITION_FAILED));
+    }
+}